@@ -0,0 +1,101 @@
+package study.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.QuerydslApplication;
+import study.querydsl.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 관리 상태 회원 10만 건 flush 비용 (dirty checking)
+ * dirtyPercent 0: 변경 없는 flush, 10: 회원 10% 나이 변경 후 flush
+ * 반복(iteration)마다 한 트랜잭션에서 회원을 읽어 두고 끝나면 롤백한다
+ *
+ * 바이트코드 향상 유무 비교:
+ * ./gradlew jmh -Pjmh.includes=MemberFlush
+ * ./gradlew jmh -Pjmh.includes=MemberFlush -PhibernateEnhance=false
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MemberFlushBenchmark {
+
+    private static final int MEMBER_COUNT = 100_000;
+
+    @Param({"0", "10"})
+    int dirtyPercent;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory emf;
+    private EntityManager em;
+    private List<Member> members;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=benchmark",
+                        "--spring.datasource.url=jdbc:h2:mem:flush-" + dirtyPercent + ";DB_CLOSE_DELAY=-1",
+                        "--decorator.datasource.p6spy.enable-logging=false",
+                        "--logging.level.org.hibernate.SQL=warn");
+        emf = context.getBean(EntityManagerFactory.class);
+
+        EntityManager loader = context.getBean(EntityManager.class);
+        context.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+            for (int n = 0; n < MEMBER_COUNT; n++) {
+                loader.persist(new Member("member" + n, n % 100));
+                if (n % 1000 == 0) {
+                    loader.flush();
+                    loader.clear();
+                }
+            }
+        });
+    }
+
+    @Setup(Level.Iteration)
+    public void load() {
+        em = emf.createEntityManager();
+        em.getTransaction().begin();
+        members = em.createQuery("select m from Member m", Member.class)
+                .getResultList();
+    }
+
+    @TearDown(Level.Iteration)
+    public void rollback() {
+        em.getTransaction().rollback();
+        em.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int flush() {
+        if (dirtyPercent > 0) {
+            for (int n = 0; n < members.size(); n += 100 / dirtyPercent) {
+                Member member = members.get(n);
+                member.setAge(member.getAge() + 1);
+            }
+        }
+        em.flush();
+        return members.size();
+    }
+}
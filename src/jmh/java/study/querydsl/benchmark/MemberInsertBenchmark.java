@@ -0,0 +1,85 @@
+package study.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.QuerydslApplication;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InitMember 방식(팀 2개 + 회원 N명 persist) 적재 시간
+ * baseline: 시퀀스 호출 1회/행, JDBC batch 없음 (변경 전)
+ * pooled: pooled-lo (allocation 50) + hibernate.jdbc.batch_size 50 + order_inserts
+ *
+ * ./gradlew jmh -Pjmh.includes=MemberInsert
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MemberInsertBenchmark {
+
+    @Param({"baseline", "pooled"})
+    String mode;
+
+    @Param({"100", "10000"})
+    int rows;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager em;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean pooled = "pooled".equals(mode);
+        context = new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=benchmark",
+                        "--spring.datasource.url=jdbc:h2:mem:insert-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.properties.querydsl.id.allocation_size=" + (pooled ? 50 : 1),
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + (pooled ? 50 : 0),
+                        "--spring.jpa.properties.hibernate.order_inserts=" + pooled,
+                        "--spring.jpa.properties.hibernate.order_updates=" + pooled,
+                        "--decorator.datasource.p6spy.enable-logging=false",
+                        "--logging.level.org.hibernate.SQL=warn");
+        em = context.getBean(EntityManager.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int insert() {
+        return transactionTemplate.execute(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+
+            for (int i = 0; i < rows; i++) {
+                Team selectedTeam = i % 2 == 0 ? teamA : teamB;
+                em.persist(new Member("member" + i, i, selectedTeam));
+            }
+            em.flush();
+            em.clear();
+            return rows;
+        });
+    }
+}
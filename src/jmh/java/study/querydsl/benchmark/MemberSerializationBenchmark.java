@@ -0,0 +1,74 @@
+package study.querydsl.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import study.querydsl.dto.MemberTeamDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 10k 행 MemberTeamDto 목록 직렬화: JSON vs CBOR vs Smile
+ * 처리량은 JMH 결과로, payload 크기는 setup 시 출력한다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MemberSerializationBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    @Param({"10000"})
+    int rows;
+
+    private ObjectWriter writer;
+    private List<MemberTeamDto> content;
+    private ByteArrayOutputStream out;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        writer = mapper(format).writerFor(List.class);
+        content = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            long teamId = i % 2 == 0 ? 1L : 2L;
+            content.add(new MemberTeamDto((long) i + 3, "member" + i, i % 100, teamId, teamId == 1L ? "teamA" : "teamB"));
+        }
+        out = new ByteArrayOutputStream(1 << 20);
+
+        byte[] payload = writer.writeValueAsBytes(content);
+        System.out.printf("%n[%s] payload = %d bytes (%d rows)%n", format, payload.length, rows);
+    }
+
+    @Benchmark
+    public int serialize() throws IOException {
+        out.reset();
+        writer.writeValue(out, content);
+        return out.size();
+    }
+
+    private static ObjectMapper mapper(String format) {
+        switch (format) {
+            case "cbor":
+                return new ObjectMapper(new CBORFactory());
+            case "smile":
+                return new ObjectMapper(new SmileFactory());
+            default:
+                return new ObjectMapper();
+        }
+    }
+}
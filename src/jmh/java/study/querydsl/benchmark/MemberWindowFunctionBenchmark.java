@@ -0,0 +1,102 @@
+package study.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.QuerydslApplication;
+import study.querydsl.dto.MemberAgeRank;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberSqlRepository;
+import study.querydsl.repository.MemberTestRepository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 팀별 상위 n 명 / 나이 순위 응답 시간
+ * window: 윈도우 함수 (MemberSqlRepository, querydsl-sql)
+ * subquery: 상관 서브쿼리 (MemberTestRepository, JPQL)
+ *
+ * ./gradlew jmh -Pjmh.includes=MemberWindowFunction
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MemberWindowFunctionBenchmark {
+
+    private static final int TEAM_COUNT = 20;
+    private static final int MEMBERS_PER_TEAM = 500;
+
+    @Param({"window", "subquery"})
+    String mode;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private MemberSqlRepository memberSqlRepository;
+    private MemberTestRepository memberTestRepository;
+    private Long targetId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=benchmark",
+                        "--spring.datasource.url=jdbc:h2:mem:window-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "--decorator.datasource.p6spy.enable-logging=false",
+                        "--logging.level.org.hibernate.SQL=warn");
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        memberSqlRepository = context.getBean(MemberSqlRepository.class);
+        memberTestRepository = context.getBean(MemberTestRepository.class);
+
+        EntityManager em = context.getBean(EntityManager.class);
+        targetId = transactionTemplate.execute(status -> {
+            Member target = null;
+            for (int t = 0; t < TEAM_COUNT; t++) {
+                Team team = new Team("team" + t);
+                em.persist(team);
+                for (int i = 0; i < MEMBERS_PER_TEAM; i++) {
+                    Member member = new Member("member" + t + "_" + i, (i * 7 + t) % 100, team);
+                    em.persist(member);
+                    target = member;
+                }
+                em.flush();
+                em.clear();
+            }
+            return target.getId();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> topNPerTeam() {
+        return transactionTemplate.execute(status -> "window".equals(mode)
+                ? memberSqlRepository.findTopNByAgePerTeam(3)
+                : memberTestRepository.findTopNByAgePerTeam_Subquery(3));
+    }
+
+    @Benchmark
+    public Optional<MemberAgeRank> ageRank() {
+        return transactionTemplate.execute(status -> "window".equals(mode)
+                ? memberSqlRepository.findAgeRank(targetId)
+                : memberTestRepository.findAgeRank_Subquery(targetId));
+    }
+}
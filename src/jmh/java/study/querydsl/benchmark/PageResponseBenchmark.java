@@ -0,0 +1,84 @@
+package study.querydsl.benchmark;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.PageResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /v2, /v3 응답 직렬화: PageImpl(기본 BeanSerializer) vs PageResponse(전용 serializer)
+ * 할당량은 gc 프로파일러 결과(gc.alloc.rate.norm)로 비교한다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageResponseBenchmark {
+
+    @Param({"20", "200"})
+    int pageSize;
+
+    private ObjectWriter pageImplWriter;
+    private ObjectWriter pageResponseWriter;
+    private PageImpl<MemberTeamDto> page;
+    private PageResponse<MemberTeamDto> pageResponse;
+    private ByteArrayOutputStream out;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<MemberTeamDto> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            long teamId = i % 2 == 0 ? 1L : 2L;
+            content.add(new MemberTeamDto((long) i + 3, "member" + i, i % 100, teamId, teamId == 1L ? "teamA" : "teamB"));
+        }
+        page = new PageImpl<>(content, PageRequest.of(3, pageSize), 10_000);
+        pageResponse = PageResponse.of(page);
+
+        // 기존 응답: DTO 도 BeanSerializer 로 직렬화
+        pageImplWriter = new ObjectMapper()
+                .addMixIn(MemberTeamDto.class, BeanSerialization.class)
+                .writer();
+        pageResponseWriter = new ObjectMapper().writer();
+        out = new ByteArrayOutputStream(1 << 16);
+
+        System.out.printf("%n[pageSize=%d] PageImpl = %d bytes, PageResponse = %d bytes%n", pageSize,
+                pageImplWriter.writeValueAsBytes(page).length,
+                pageResponseWriter.writeValueAsBytes(pageResponse).length);
+    }
+
+    @Benchmark
+    public int pageImpl() throws IOException {
+        out.reset();
+        pageImplWriter.writeValue(out, page);
+        return out.size();
+    }
+
+    @Benchmark
+    public int pageResponse() throws IOException {
+        out.reset();
+        pageResponseWriter.writeValue(out, pageResponse);
+        return out.size();
+    }
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    abstract static class BeanSerialization {
+    }
+}
@@ -0,0 +1,82 @@
+package study.querydsl.benchmark;
+
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Projections;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.QMemberDto;
+import study.querydsl.repository.support.LambdaProjections;
+
+import java.util.concurrent.TimeUnit;
+
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * 100k 행 DTO 프로젝션의 행당 생성 비용 (DB 없이 FactoryExpression.newInstance 만 측정)
+ * Querydsl 기본 (리플렉션) vs LambdaProjections (MethodHandle / LambdaMetafactory)
+ *
+ * ./gradlew jmh -Pjmh.includes=Projection
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProjectionBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    @Param({"queryProjection", "constructor", "bean", "fields",
+            "lambdaConstructor", "lambdaBean", "lambdaFields"})
+    String projection;
+
+    private FactoryExpression<MemberDto> factory;
+    private Object[][] rows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        factory = factory(projection);
+        rows = new Object[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            rows[i] = new Object[]{"member" + i, i % 100};
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void project(Blackhole blackhole) {
+        for (Object[] row : rows) {
+            // Querydsl 은 행마다 새 배열을 넘긴다
+            blackhole.consume(factory.newInstance(row[0], row[1]));
+        }
+    }
+
+    private static FactoryExpression<MemberDto> factory(String projection) {
+        switch (projection) {
+            case "queryProjection":
+                return new QMemberDto(member.username, member.age);
+            case "constructor":
+                return Projections.constructor(MemberDto.class, member.username, member.age);
+            case "bean":
+                return Projections.bean(MemberDto.class, member.username, member.age);
+            case "fields":
+                return Projections.fields(MemberDto.class, member.username, member.age);
+            case "lambdaConstructor":
+                return LambdaProjections.constructor(MemberDto.class, member.username, member.age);
+            case "lambdaBean":
+                return LambdaProjections.bean(MemberDto.class, member.username, member.age);
+            case "lambdaFields":
+                return LambdaProjections.fields(MemberDto.class, member.username, member.age);
+            default:
+                throw new IllegalArgumentException(projection);
+        }
+    }
+}
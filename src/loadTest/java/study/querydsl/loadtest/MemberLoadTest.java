@@ -0,0 +1,216 @@
+package study.querydsl.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.QuerydslApplication;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * /v1, /v2, /v3 회원 검색 API 부하 테스트 드라이버
+ * 내장 서버 + in-memory H2 로 애플리케이션을 띄운 뒤 고정 도착률(open model)로 요청을 보낸다
+ *
+ * 지연시간은 실제 전송 시각이 아니라 "예정된" 전송 시각부터 측정해 coordinated omission 을 피한다
+ *
+ * 설정(System property)
+ * - loadtest.rate      초당 요청 수 (기본 200)
+ * - loadtest.duration  측정 시간(초) (기본 30)
+ * - loadtest.warmup    워밍업 시간(초) (기본 5)
+ * - loadtest.mix       엔드포인트 가중치 (기본 v1:1,v2:1,v3:1)
+ * - loadtest.output    결과 JSON 파일 (기본 build/loadtest/result-{timestamp}.json)
+ */
+public class MemberLoadTest {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors() * 2)))
+            .build();
+
+    private final String baseUrl;
+    private final List<String> mix;
+
+    private volatile Histogram histogram = new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    public MemberLoadTest(String baseUrl, List<String> mix) {
+        this.baseUrl = baseUrl;
+        this.mix = mix;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rate = Integer.getInteger("loadtest.rate", 200);
+        int duration = Integer.getInteger("loadtest.duration", 30);
+        int warmup = Integer.getInteger("loadtest.warmup", 5);
+        String mixSpec = System.getProperty("loadtest.mix", "v1:1,v2:1,v3:1");
+        String output = System.getProperty("loadtest.output",
+                "build/loadtest/result-" + System.currentTimeMillis() + ".json");
+
+        ConfigurableApplicationContext context = SpringApplication.run(QuerydslApplication.class,
+                "--server.port=0",
+                "--spring.profiles.active=local",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--decorator.datasource.p6spy.enable-logging=false",
+                "--logging.level.org.hibernate.SQL=warn");
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            MemberLoadTest loadTest = new MemberLoadTest("http://localhost:" + port, parseMix(mixSpec));
+
+            loadTest.run(rate, warmup);
+            loadTest.reset();
+            Instant start = Instant.now();
+            loadTest.run(rate, duration);
+            Map<String, Object> result = loadTest.report(rate, mixSpec, start, duration);
+
+            File file = new File(output);
+            file.getParentFile().mkdirs();
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, result);
+            System.out.println(new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(result));
+            System.out.println("result written to " + file.getAbsolutePath());
+        } finally {
+            context.close();
+            System.exit(0);
+        }
+    }
+
+    private void reset() {
+        histogram = new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+        sent.set(0);
+        errors.set(0);
+    }
+
+    private void run(int rate, int seconds) throws InterruptedException {
+        if (seconds <= 0) {
+            return;
+        }
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * seconds;
+        long base = System.nanoTime();
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        AtomicLong tick = new AtomicLong();
+        scheduler.scheduleAtFixedRate(() -> {
+            // 스케줄러가 밀린 경우에도 예정된 요청 수를 따라잡는다
+            long due = Math.min(total, (System.nanoTime() - base) / intervalNanos + 1);
+            for (long i = tick.get(); i < due; i = tick.incrementAndGet()) {
+                send(base + i * intervalNanos);
+            }
+        }, 0, Math.max(1, intervalNanos / 1000), TimeUnit.MICROSECONDS);
+
+        scheduler.awaitTermination(seconds, TimeUnit.SECONDS);
+        scheduler.shutdownNow();
+        // 진행 중인 요청이 끝날 때까지 대기
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (histogram.getTotalCount() + errors.get() < sent.get() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    private void send(long intendedNanos) {
+        sent.incrementAndGet();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + nextPath()))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        Histogram target = histogram;
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, throwable) -> {
+                    if (throwable != null || response.statusCode() >= 400) {
+                        errors.incrementAndGet();
+                        return;
+                    }
+                    target.recordValue(Math.min(MAX_LATENCY_NANOS, System.nanoTime() - intendedNanos));
+                });
+    }
+
+    /**
+     * 엔드포인트 가중치에 따라 MemberSearchCondition / Pageable 조합을 무작위로 생성
+     */
+    private String nextPath() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String endpoint = mix.get(random.nextInt(mix.size()));
+
+        StringBuilder path = new StringBuilder("/").append(endpoint).append("/members?");
+        if (random.nextInt(4) == 0) {
+            path.append("username=member").append(random.nextInt(100)).append('&');
+        }
+        if (random.nextBoolean()) {
+            path.append("teamName=").append(random.nextBoolean() ? "teamA" : "teamB").append('&');
+        }
+        if (random.nextInt(3) == 0) {
+            int ageGoe = random.nextInt(80);
+            path.append("ageGoe=").append(ageGoe).append("&ageLoe=").append(ageGoe + random.nextInt(20)).append('&');
+        }
+        if (!"v1".equals(endpoint)) {
+            path.append("page=").append(random.nextInt(5)).append("&size=").append(10 + random.nextInt(3) * 10);
+        }
+        return path.toString();
+    }
+
+    private Map<String, Object> report(int rate, String mixSpec, Instant start, int duration) {
+        Histogram snapshot = histogram.copy();
+        long completed = snapshot.getTotalCount();
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("p50", toMillis(snapshot.getValueAtPercentile(50)));
+        latency.put("p90", toMillis(snapshot.getValueAtPercentile(90)));
+        latency.put("p99", toMillis(snapshot.getValueAtPercentile(99)));
+        latency.put("p999", toMillis(snapshot.getValueAtPercentile(99.9)));
+        latency.put("max", toMillis(snapshot.getMaxValue()));
+        latency.put("mean", toMillis((long) snapshot.getMean()));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("startedAt", start.toString());
+        result.put("targetRate", rate);
+        result.put("durationSeconds", duration);
+        result.put("mix", mixSpec);
+        result.put("sent", sent.get());
+        result.put("completed", completed);
+        result.put("errors", errors.get());
+        result.put("errorRate", sent.get() == 0 ? 0.0 : (double) errors.get() / sent.get());
+        result.put("throughput", (double) completed / duration);
+        result.put("latencyMillis", latency);
+        return result;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static List<String> parseMix(String spec) {
+        List<String> mix = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            for (int i = 0; i < weight; i++) {
+                mix.add(parts[0].trim());
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix must not be empty: " + spec);
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,45 @@
+package study.querydsl.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Controller;
+
+/**
+ * faststart 프로필 설정
+ * 전역 lazy initialization 을 켜되, 첫 요청 지연을 막기 위해 웹 계층 빈은 즉시 초기화한다
+ */
+@Configuration
+@Profile("faststart")
+public class FastStartConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter webBeansLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) ->
+                beanType != null && AnnotatedElementUtils.hasAnnotation(beanType, Controller.class);
+    }
+
+    /**
+     * AppCDS 아카이브 생성(./gradlew cdsArchive)용 학습 실행
+     * 기동이 끝나면 바로 종료해 로딩된 클래스를 아카이브에 기록하게 한다
+     */
+    @Bean
+    @ConditionalOnProperty("member.startup.exit-after-ready")
+    ExitAfterReady exitAfterReady() {
+        return new ExitAfterReady();
+    }
+
+    static class ExitAfterReady {
+
+        @EventListener
+        public void onReady(ApplicationReadyEvent event) {
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package study.querydsl.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * member.hibernate-statistics.enabled=true 일 때 hibernate.generate_statistics 활성화
+ * 미터/엔드포인트는 HibernateStatisticsMetrics, HibernateStatisticsEndpoint
+ */
+@Configuration
+@ConditionalOnProperty(name = "member.hibernate-statistics.enabled", havingValue = "true")
+public class HibernateStatisticsConfig {
+
+    @Bean
+    HibernatePropertiesCustomizer generateStatisticsCustomizer() {
+        return properties -> properties.put(AvailableSettings.GENERATE_STATISTICS, "true");
+    }
+}
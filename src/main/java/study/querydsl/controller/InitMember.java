@@ -1,7 +1,11 @@
 package study.querydsl.controller;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.entity.Member;
@@ -11,6 +15,7 @@ import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 
+@Slf4j
 @Profile("local")
 @Component
 @RequiredArgsConstructor
@@ -18,9 +23,33 @@ public class InitMember {
 
     private final InitMemberService initMemberService;
 
+    @Value("${member.init.deferred:false}")
+    private boolean deferred;
+
     @PostConstruct
     public void init() {
-        initMemberService.init();
+        if (!deferred) {
+            initMemberService.init();
+        }
+    }
+
+    /**
+     * 기동 완료 후 백그라운드에서 샘플 데이터 적재 (faststart 프로필)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initDeferred() {
+        if (!deferred) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                initMemberService.init();
+            } catch (RuntimeException e) {
+                log.warn("deferred member init failed", e);
+            }
+        }, "init-member");
+        thread.setDaemon(true);
+        thread.start();
     }
 
     @Component
@@ -30,6 +59,13 @@ public class InitMember {
 
         @Transactional
         public void init() {
+            // ddl-auto 가 create 가 아니면 이전 기동 때 적재한 데이터가 남아 있다
+            Long count = em.createQuery("select count(m) from Member m", Long.class)
+                    .getSingleResult();
+            if (count > 0) {
+                return;
+            }
+
             Team teamA = new Team("teamA");
             Team teamB = new Team("teamB");
             em.persist(teamA);
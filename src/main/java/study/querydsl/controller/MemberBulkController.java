@@ -0,0 +1,120 @@
+package study.querydsl.controller;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import study.querydsl.dto.MemberBulkResult;
+import study.querydsl.dto.MemberBulkRow;
+import study.querydsl.repository.MemberBulkRepository;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.util.StringUtils.hasText;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberBulkController {
+
+    private final ObjectMapper objectMapper;
+    private final MemberBulkRepository memberBulkRepository;
+
+    @Value("${member.bulk.chunk-size:1000}")
+    private int defaultChunkSize;
+
+    /**
+     * JSON 배열을 스트리밍으로 읽으면서 청크 단위로 저장
+     * 요청 전체를 리스트로 역직렬화하지 않는다
+     * 청크마다 커밋하므로 DB 오류가 나도 앞선 청크는 남는다, 롤백된 청크의 행은 errors / rolledBackChunks 로 보고
+     * 본문이 중간에 깨지거나 끊기면 더 저장하지 않고 400 과 함께 그때까지의 결과(aborted)를 돌려준다
+     */
+    @PostMapping(value = "/members/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<MemberBulkResult> bulkInsert(@RequestParam(required = false) Integer chunkSize,
+                                                       HttpServletRequest request) throws IOException {
+        int size = chunkSize != null && chunkSize > 0 ? chunkSize : defaultChunkSize;
+        MemberBulkResult result = new MemberBulkResult();
+        long start = System.nanoTime();
+
+        List<MemberBulkRow> chunk = new ArrayList<>(size);
+        long index = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(request.getInputStream())) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(BAD_REQUEST, "JSON array expected");
+            }
+
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    abort(chunk, index, "unexpected end of JSON array", result);
+                    break;
+                }
+                if (token != JsonToken.START_OBJECT) {
+                    result.fail(index++, "JSON object expected");
+                    parser.skipChildren();
+                    continue;
+                }
+
+                MemberBulkRow row = toRow(objectMapper.readTree(parser), index++, result);
+                if (row == null) {
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() >= size) {
+                    memberBulkRepository.insertChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                memberBulkRepository.insertChunk(chunk, result);
+            }
+        } catch (JsonProcessingException e) {
+            // readTree 실패 시 index 는 증가하기 전이므로 깨진 행의 번호
+            abort(chunk, index, "malformed JSON: " + e.getOriginalMessage(), result);
+        }
+
+        result.finish((System.nanoTime() - start) / 1_000_000);
+        return result.isAborted() ? ResponseEntity.badRequest().body(result) : ResponseEntity.ok(result);
+    }
+
+    /**
+     * 아직 저장하지 않은 청크의 행은 실패로, 중단 위치는 사유와 함께 기록 (이미 커밋된 청크는 그대로)
+     */
+    private static void abort(List<MemberBulkRow> pending, long index, String reason, MemberBulkResult result) {
+        for (MemberBulkRow row : pending) {
+            result.fail(row.getIndex(), "not saved: request aborted at row " + index);
+        }
+        pending.clear();
+        result.abort(index, reason);
+    }
+
+    private MemberBulkRow toRow(JsonNode node, long index, MemberBulkResult result) {
+        String username = node.path("username").asText(null);
+        if (!hasText(username)) {
+            result.fail(index, "username is required");
+            return null;
+        }
+
+        JsonNode age = node.path("age");
+        // canConvertToInt 만 보면 12.7 을 12 로 잘라 받는다
+        if (!age.isMissingNode() && !age.isNull() && !(age.isIntegralNumber() && age.canConvertToInt())) {
+            result.fail(index, "age must be an integer");
+            return null;
+        }
+
+        String teamName = node.path("teamName").asText(null);
+        return new MemberBulkRow(index, username, age.asInt(0), teamName);
+    }
+}
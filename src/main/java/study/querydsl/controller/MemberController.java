@@ -1,37 +1,186 @@
 package study.querydsl.controller;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.PageResponse;
+import study.querydsl.repository.MemberExportRepository;
+import study.querydsl.repository.MemberField;
 import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.MemberParallelScanRepository;
 import study.querydsl.repository.MemberRepository;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    // JSON 외에 CBOR, Smile 응답 지원 (Accept 헤더 또는 ?format=cbor|smile)
+    private static final String CBOR_VALUE = "application/cbor";
+    private static final String SMILE_VALUE = "application/x-jackson-smile";
+
     private final MemberJpaRepository memberJpaRepository;
     private final MemberRepository memberRepository;
+    private final MemberExportRepository memberExportRepository;
+    private final MemberParallelScanRepository memberParallelScanRepository;
+    private final SearchAdmissionControl searchAdmissionControl;
 
-    @GetMapping("/v1/members")
+    @GetMapping(value = "/v1/members", produces = {MediaType.APPLICATION_JSON_VALUE, CBOR_VALUE, SMILE_VALUE})
     public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
-        return memberJpaRepository.searchByWhereParameter(condition);
+        return searchAdmissionControl.admit(condition, null,
+                () -> memberJpaRepository.searchByWhereParameter(condition));
+    }
+
+    /**
+     * fields= 로 지정한 필드만 조회/응답 (예: /v1/members?fields=memberId,username)
+     */
+    @GetMapping(value = "/v1/members", params = "fields", produces = {MediaType.APPLICATION_JSON_VALUE, CBOR_VALUE, SMILE_VALUE})
+    public List<Map<String, Object>> searchMemberFieldsV1(MemberSearchCondition condition,
+                                                          @RequestParam String fields) {
+        Set<MemberField> selected = parseFields(fields);
+        return searchAdmissionControl.admit(condition, null,
+                () -> memberRepository.searchFields(condition, selected));
+    }
+
+    @GetMapping(value = "/v2/members", produces = {MediaType.APPLICATION_JSON_VALUE, CBOR_VALUE, SMILE_VALUE})
+    public PageResponse<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
+        return PageResponse.of(searchAdmissionControl.admit(condition, pageable,
+                () -> memberRepository.searchPageSimple(condition, pageable)));
+    }
+
+    @GetMapping(value = "/v3/members", produces = {MediaType.APPLICATION_JSON_VALUE, CBOR_VALUE, SMILE_VALUE})
+    public PageResponse<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
+        return PageResponse.of(searchAdmissionControl.admit(condition, pageable,
+                () -> rejectIllegalArgument(() -> memberRepository.searchPageComplex(condition, pageable))));
+    }
+
+    @GetMapping(value = "/v3/members", params = "fields", produces = {MediaType.APPLICATION_JSON_VALUE, CBOR_VALUE, SMILE_VALUE})
+    public PageResponse<Map<String, Object>> searchMemberFieldsV3(MemberSearchCondition condition, Pageable pageable,
+                                                          @RequestParam String fields) {
+        Set<MemberField> selected = parseFields(fields);
+        return PageResponse.of(searchAdmissionControl.admit(condition, pageable,
+                () -> rejectIllegalArgument(() -> memberRepository.searchPageFields(condition, pageable, selected))));
+    }
+
+    /**
+     * 전체 건수 없이 다음 페이지 유무만 제공 (count 쿼리 없음, 무한 스크롤용)
+     */
+    @GetMapping(value = "/v4/members", produces = {MediaType.APPLICATION_JSON_VALUE, CBOR_VALUE, SMILE_VALUE})
+    public PageResponse<MemberTeamDto> searchMemberV4(MemberSearchCondition condition, Pageable pageable) {
+        return PageResponse.of(searchAdmissionControl.admitSlice(condition, pageable,
+                () -> rejectIllegalArgument(() -> memberRepository.searchSlice(condition, pageable))));
+    }
+
+    /**
+     * 검색 결과 전체를 CSV로 스트리밍
+     * 결과를 리스트로 모으지 않고 조회한 행을 바로 응답 스트림에 기록한다
+     * parallel=true 면 id 구간 병렬 스캔 (출력 순서는 동일하게 id 순)
+     */
+    @GetMapping("/members/export.csv")
+    public void exportMembersCsv(MemberSearchCondition condition,
+                                 @RequestParam(defaultValue = "false") boolean gzip,
+                                 @RequestParam(defaultValue = "false") boolean parallel,
+                                 HttpServletResponse response) throws IOException {
+        // 응답을 쓰기 전에 허가를 받아야 429 를 보낼 수 있다
+        try {
+            searchAdmissionControl.admit(condition, null, () -> {
+                writeCsv(condition, gzip, parallel, response);
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeCsv(MemberSearchCondition condition, boolean gzip, boolean parallel,
+                          HttpServletResponse response) {
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"members.csv\"");
+        try {
+            OutputStream out = response.getOutputStream();
+            if (gzip) {
+                response.setHeader("Content-Encoding", "gzip");
+                out = new GZIPOutputStream(out, 8192);
+            }
+
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192)) {
+                writer.write("memberId,username,age,teamId,teamName\n");
+                if (parallel) {
+                    memberParallelScanRepository.scan(condition, true, dto -> writeCsvRow(writer, dto));
+                } else {
+                    memberExportRepository.forEach(condition, dto -> writeCsvRow(writer, dto));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 정렬할 수 없는 속성 등 잘못된 검색 인자는 400 (리포지토리 예외 변환을 거치면 InvalidDataAccessApiUsageException)
+     */
+    private static <T> T rejectIllegalArgument(Supplier<T> search) {
+        try {
+            return search.get();
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private Set<MemberField> parseFields(String fields) {
+        try {
+            return MemberField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
-    @GetMapping("/v2/members")
-    public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPageSimple(condition, pageable);
+    private void writeCsvRow(Writer writer, MemberTeamDto dto) {
+        try {
+            writer.write(String.valueOf(dto.getMemberId()));
+            writer.write(',');
+            writer.write(csvEscape(dto.getUsername()));
+            writer.write(',');
+            writer.write(Integer.toString(dto.getAge()));
+            writer.write(',');
+            writer.write(dto.getTeamId() != null ? dto.getTeamId().toString() : "");
+            writer.write(',');
+            writer.write(csvEscape(dto.getTeamName()));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    @GetMapping("/v3/members")
-    public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPageComplex(condition, pageable);
+    private String csvEscape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
     }
 
 }
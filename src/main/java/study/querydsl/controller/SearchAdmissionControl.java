@@ -0,0 +1,159 @@
+package study.querydsl.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.monitoring.SearchShapeMetrics;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 검색 요청 비용 기반 동시 실행 제어
+ * 조건 조합(shape)과 페이지 크기로 예상 조회 건수를 계산해 cheap / expensive 로 나누고
+ * 종류별 세마포어로 동시 실행 수를 제한한다. queue-timeout 안에 자리를 얻지 못하면 429 + Retry-After
+ *
+ * 예상 건수
+ * - 전체 조회: 해당 shape 의 관측 평균 건수 (SearchShapeMetrics), 기록이 없으면 username 조건은 cheap, 그 외는 expensive
+ * - 페이지 조회 (/v2, /v3): count 쿼리가 조건에 맞는 행을 모두 세므로 offset + size 와 전체 조회 추정치 중 큰 값
+ * - 슬라이스 조회 (/v4): count 쿼리가 없으므로 offset + size
+ */
+@Component
+public class SearchAdmissionControl {
+
+    public enum CostClass {
+        CHEAP, EXPENSIVE
+    }
+
+    private final SearchShapeMetrics searchShapeMetrics;
+    private final boolean enabled;
+    private final long expensiveRows;
+    private final long queueTimeoutNanos;
+    private final long retryAfterSeconds;
+
+    private final int cheapLimit;
+    private final int expensiveLimit;
+    private final Semaphore cheap;
+    private final Semaphore expensive;
+
+    private final Counter cheapAdmitted;
+    private final Counter cheapRejected;
+    private final Counter expensiveAdmitted;
+    private final Counter expensiveRejected;
+
+    public SearchAdmissionControl(SearchShapeMetrics searchShapeMetrics,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${member.admission.enabled:false}") boolean enabled,
+                                  @Value("${member.admission.cheap-limit:32}") int cheapLimit,
+                                  @Value("${member.admission.expensive-limit:4}") int expensiveLimit,
+                                  @Value("${member.admission.expensive-rows:1000}") long expensiveRows,
+                                  @Value("${member.admission.queue-timeout:200ms}") Duration queueTimeout,
+                                  @Value("${member.admission.retry-after:1s}") Duration retryAfter) {
+        this.searchShapeMetrics = searchShapeMetrics;
+        this.enabled = enabled;
+        this.expensiveRows = expensiveRows;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.retryAfterSeconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        this.cheapLimit = cheapLimit;
+        this.expensiveLimit = expensiveLimit;
+        this.cheap = new Semaphore(cheapLimit, true);
+        this.expensive = new Semaphore(expensiveLimit, true);
+
+        this.cheapAdmitted = counter(meterRegistry, CostClass.CHEAP, "admitted");
+        this.cheapRejected = counter(meterRegistry, CostClass.CHEAP, "rejected");
+        this.expensiveAdmitted = counter(meterRegistry, CostClass.EXPENSIVE, "admitted");
+        this.expensiveRejected = counter(meterRegistry, CostClass.EXPENSIVE, "rejected");
+        Gauge.builder("member.search.admission.active", cheap, s -> cheapLimit - s.availablePermits())
+                .tag("class", "cheap")
+                .description("searches currently holding a permit")
+                .register(meterRegistry);
+        Gauge.builder("member.search.admission.active", expensive, s -> expensiveLimit - s.availablePermits())
+                .tag("class", "expensive")
+                .description("searches currently holding a permit")
+                .register(meterRegistry);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, CostClass costClass, String result) {
+        return Counter.builder("member.search.admission")
+                .tag("class", costClass.name().toLowerCase())
+                .tag("result", result)
+                .description("search admission decisions")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 전체 조회 또는 count 쿼리를 함께 실행하는 페이지 조회
+     * @param pageable 전체 조회면 null
+     */
+    public <T> T admit(MemberSearchCondition condition, Pageable pageable, Supplier<T> search) {
+        return admit(classify(condition, pageable, true), search);
+    }
+
+    /**
+     * count 쿼리 없는 슬라이스 조회
+     */
+    public <T> T admitSlice(MemberSearchCondition condition, Pageable pageable, Supplier<T> search) {
+        return admit(classify(condition, pageable, false), search);
+    }
+
+    private <T> T admit(CostClass costClass, Supplier<T> search) {
+        if (!enabled) {
+            return search.get();
+        }
+
+        boolean isExpensive = costClass == CostClass.EXPENSIVE;
+        Semaphore permits = isExpensive ? expensive : cheap;
+        if (!acquire(permits)) {
+            (isExpensive ? expensiveRejected : cheapRejected).increment();
+            throw new SearchRejectedException(
+                    (isExpensive ? "expensive" : "cheap") + " search capacity exhausted", retryAfterSeconds);
+        }
+
+        (isExpensive ? expensiveAdmitted : cheapAdmitted).increment();
+        try {
+            return search.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * @param counted 페이지 조회에서 count 쿼리도 실행하는지 여부
+     */
+    public CostClass classify(MemberSearchCondition condition, Pageable pageable, boolean counted) {
+        return estimateRows(condition, pageable, counted) >= expensiveRows ? CostClass.EXPENSIVE : CostClass.CHEAP;
+    }
+
+    public long estimateRows(MemberSearchCondition condition, Pageable pageable, boolean counted) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return estimateMatchingRows(condition);
+        }
+
+        long pageRows = pageable.getOffset() + pageable.getPageSize();
+        return counted ? Math.max(pageRows, estimateMatchingRows(condition)) : pageRows;
+    }
+
+    private long estimateMatchingRows(MemberSearchCondition condition) {
+        int shape = SearchShapeMetrics.shapeOf(condition);
+        double observed = searchShapeMetrics.meanRows(shape);
+        if (observed >= 0) {
+            return (long) Math.ceil(observed);
+        }
+        return (shape & SearchShapeMetrics.USERNAME) != 0 ? 1 : Long.MAX_VALUE;
+    }
+
+    private boolean acquire(Semaphore permits) {
+        try {
+            return permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+
+@Data
+public class MemberAgeRank {
+
+    private Long memberId;
+    private String username;
+    private int age;
+    // 나이 내림차순 순위 (동률은 같은 순위)
+    private long rank;
+    private long teamRank;
+    // 자신보다 어린 회원 비율 (0 ~ 1, percent_rank)
+    private double percentile;
+
+    public MemberAgeRank(Long memberId, String username, int age, long rank, long teamRank, double percentile) {
+        this.memberId = memberId;
+        this.username = username;
+        this.age = age;
+        this.rank = rank;
+        this.teamRank = teamRank;
+        this.percentile = percentile;
+    }
+}
@@ -0,0 +1,47 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class MemberBulkResult {
+
+    private static final int MAX_ERRORS = 100;
+
+    private long accepted;
+    private long failed;
+    // DB 오류로 롤백된 청크 수 (나머지 청크는 커밋됨)
+    private long rolledBackChunks;
+    // 요청 본문 오류(잘못된 JSON, 중간에 끊긴 입력)로 중단됨, 그 전에 커밋된 청크는 남는다
+    private boolean aborted;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<String> errors = new ArrayList<>();
+
+    public void accept(long count) {
+        accepted += count;
+    }
+
+    public void fail(long index, String reason) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add("row " + index + ": " + reason);
+        }
+    }
+
+    public void abort(long index, String reason) {
+        fail(index, reason);
+        aborted = true;
+    }
+
+    public void rollBackChunk() {
+        rolledBackChunks++;
+    }
+
+    public void finish(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = elapsedMillis > 0 ? accepted * 1000.0 / elapsedMillis : accepted;
+    }
+}
@@ -0,0 +1,16 @@
+package study.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class MemberBulkRow {
+
+    // 요청 배열 내 위치 (실패 리포트용)
+    private long index;
+    private String username;
+    private int age;
+    private String teamName;
+
+}
@@ -0,0 +1,19 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+
+@Data
+public class MemberScanResult {
+
+    private long rows;
+    private int segments;
+    private int parallelism;
+    private boolean ordered;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+
+    public void finish(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = elapsedMillis > 0 ? rows * 1000.0 / elapsedMillis : rows;
+    }
+}
@@ -0,0 +1,45 @@
+package study.querydsl.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * MemberTeamDto 전용 serializer
+ * 빈 introspection/프로퍼티 writer 를 거치지 않고 필드를 직접 쓴다 (BeanSerializer 와 같은 스키마)
+ */
+public class MemberTeamDtoSerializer extends StdSerializer<MemberTeamDto> {
+
+    public MemberTeamDtoSerializer() {
+        super(MemberTeamDto.class);
+    }
+
+    @Override
+    public void serialize(MemberTeamDto value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        writeLongField(gen, "memberId", value.getMemberId());
+        writeStringField(gen, "username", value.getUsername());
+        gen.writeNumberField("age", value.getAge());
+        writeLongField(gen, "teamId", value.getTeamId());
+        writeStringField(gen, "teamName", value.getTeamName());
+        gen.writeEndObject();
+    }
+
+    private static void writeLongField(JsonGenerator gen, String name, Long value) throws IOException {
+        if (value != null) {
+            gen.writeNumberField(name, value);
+        } else {
+            gen.writeNullField(name);
+        }
+    }
+
+    private static void writeStringField(JsonGenerator gen, String name, String value) throws IOException {
+        if (value != null) {
+            gen.writeStringField(name, value);
+        } else {
+            gen.writeNullField(name);
+        }
+    }
+}
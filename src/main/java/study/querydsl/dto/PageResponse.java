@@ -0,0 +1,43 @@
+package study.querydsl.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * 검색 API 응답용 페이지 봉투
+ * PageImpl 의 pageable/sort 하위 구조 없이 content, totalElements, hasNext, cursor 만 내려준다
+ * cursor 는 다음 페이지 번호 (없으면 null)
+ */
+@Getter
+@JsonSerialize(using = PageResponseSerializer.class)
+public class PageResponse<T> {
+
+    private final List<T> content;
+    // Slice 는 전체 건수를 모르므로 null
+    private final Long totalElements;
+    private final boolean hasNext;
+    private final Integer cursor;
+
+    private PageResponse(List<T> content, Long totalElements, boolean hasNext, Integer cursor) {
+        this.content = content;
+        this.totalElements = totalElements;
+        this.hasNext = hasNext;
+        this.cursor = cursor;
+    }
+
+    public static <T> PageResponse<T> of(Page<T> page) {
+        return new PageResponse<>(page.getContent(), page.getTotalElements(), page.hasNext(), nextCursor(page));
+    }
+
+    public static <T> PageResponse<T> of(Slice<T> slice) {
+        return new PageResponse<>(slice.getContent(), null, slice.hasNext(), nextCursor(slice));
+    }
+
+    private static Integer nextCursor(Slice<?> slice) {
+        return slice.hasNext() ? slice.getNumber() + 1 : null;
+    }
+}
@@ -0,0 +1,56 @@
+package study.querydsl.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * PageResponse 직렬화
+ * 봉투 필드는 직접 쓰고, content 요소 serializer 는 클래스별로 한 번만 조회한다
+ */
+public class PageResponseSerializer extends StdSerializer<PageResponse<?>> {
+
+    @SuppressWarnings("unchecked")
+    public PageResponseSerializer() {
+        super((Class<PageResponse<?>>) (Class<?>) PageResponse.class);
+    }
+
+    @Override
+    public void serialize(PageResponse<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+
+        gen.writeFieldName("content");
+        List<?> content = value.getContent();
+        gen.writeStartArray(content, content.size());
+        Class<?> lastType = null;
+        JsonSerializer<Object> serializer = null;
+        for (Object element : content) {
+            if (element == null) {
+                gen.writeNull();
+                continue;
+            }
+            if (element.getClass() != lastType) {
+                lastType = element.getClass();
+                serializer = provider.findValueSerializer(lastType);
+            }
+            serializer.serialize(element, gen, provider);
+        }
+        gen.writeEndArray();
+
+        if (value.getTotalElements() != null) {
+            gen.writeNumberField("totalElements", value.getTotalElements());
+        }
+        gen.writeBooleanField("hasNext", value.isHasNext());
+        if (value.getCursor() != null) {
+            gen.writeNumberField("cursor", value.getCursor());
+        } else {
+            gen.writeNullField("cursor");
+        }
+
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,37 @@
+package study.querydsl.entity;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * pooled-lo 시퀀스 id 생성기
+ * 시퀀스 한 번 호출로 allocation size 만큼의 id 를 메모리에서 할당한다 (sequence 값 = 블록의 첫 id)
+ * allocation size 는 hibernate 설정 querydsl.id.allocation_size 로 지정 (기본 50)
+ *
+ * 엔티티별 시퀀스 이름은 @GenericGenerator 의 sequence_name 파라미터로 지정
+ */
+public class PooledLoSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE = "querydsl.id.allocation_size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Map<?, ?> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        params.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize(settings)));
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, params, serviceRegistry);
+    }
+
+    public static int allocationSize(Map<?, ?> settings) {
+        Object value = settings.get(ALLOCATION_SIZE);
+        return value != null ? Integer.parseInt(value.toString().trim()) : DEFAULT_ALLOCATION_SIZE;
+    }
+}
@@ -4,6 +4,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 import java.util.ArrayList;
@@ -17,7 +19,10 @@ import static lombok.AccessLevel.PROTECTED;
 @ToString(of = {"id", "name"})
 public class Team {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(generator = "team_seq")
+    @GenericGenerator(name = "team_seq", strategy = "study.querydsl.entity.PooledLoSequenceGenerator",
+            parameters = @Parameter(name = "sequence_name", value = "team_seq"))
     @Column(name = "team_id")
     private Long id;
 
@@ -29,4 +34,14 @@ public class Team {
     public Team(String name) {
         this.name = name;
     }
+
+    /**
+     * 양방향 연관관계 동기화
+     * members 는 inverse(mappedBy) 컬렉션이라 로딩 전에는 add 가 초기화 없이 큐에 쌓이고,
+     * flush 전에 같은 세션에서 컬렉션을 읽어도 로딩 시 큐의 회원이 함께 반영된다
+     * 팀 소속 회원 조회는 TeamRepository.findMembers(teamId, pageable) 사용
+     */
+    void addMember(Member member) {
+        members.add(member);
+    }
 }
@@ -0,0 +1,33 @@
+package study.querydsl.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * /actuator/hibernatestats: Hibernate Statistics 요약, 엔티티/컬렉션/쿼리별 분해
+ * DELETE 로 통계 초기화 후 다시 조회해 튜닝 전후를 비교한다
+ */
+@Component
+@Endpoint(id = "hibernatestats")
+@ConditionalOnProperty(name = "member.hibernate-statistics.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class HibernateStatisticsEndpoint {
+
+    private final HibernateStatisticsMetrics hibernateStatisticsMetrics;
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        return hibernateStatisticsMetrics.snapshot();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        hibernateStatisticsMetrics.clear();
+    }
+}
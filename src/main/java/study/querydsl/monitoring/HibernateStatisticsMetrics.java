@@ -0,0 +1,193 @@
+package study.querydsl.monitoring;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jpa.HibernateQueryMetrics;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Hibernate Statistics 엔티티/컬렉션/쿼리별 미터와 스냅샷 (/actuator/hibernatestats)
+ * 전체 합계(hibernate.sessions.open, hibernate.query.plan 등)는 스프링 부트 HibernateMetrics 가 등록하고,
+ * 여기서는 엔티티(Member, Team)별, 컬렉션(Team.members)별, 쿼리별 분해만 추가한다
+ */
+@Component
+@ConditionalOnProperty(name = "member.hibernate-statistics.enabled", havingValue = "true")
+public class HibernateStatisticsMetrics implements SmartInitializingSingleton {
+
+    private static final int MAX_QUERY_LENGTH = 500;
+
+    private final Statistics statistics;
+    private final SessionFactory sessionFactory;
+    private final MeterRegistry meterRegistry;
+
+    public HibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.statistics = sessionFactory.getStatistics();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 세션 팩토리 메타모델이 준비된 뒤 엔티티/컬렉션 목록으로 미터 등록
+     */
+    @Override
+    @SuppressWarnings("deprecation")
+    public void afterSingletonsInstantiated() {
+        for (String entityName : statistics.getEntityNames()) {
+            Tags tags = Tags.of("entity", simpleName(entityName));
+            entityCounter("hibernate.entity.loads", tags, entityName, EntityStatistics::getLoadCount);
+            entityCounter("hibernate.entity.fetches", tags, entityName, EntityStatistics::getFetchCount);
+            entityCounter("hibernate.entity.inserts", tags, entityName, EntityStatistics::getInsertCount);
+            entityCounter("hibernate.entity.updates", tags, entityName, EntityStatistics::getUpdateCount);
+            entityCounter("hibernate.entity.deletes", tags, entityName, EntityStatistics::getDeleteCount);
+            entityCounter("hibernate.entity.optimistic.failures", tags, entityName,
+                    EntityStatistics::getOptimisticFailureCount);
+            entityCounter("hibernate.entity.cache.requests", tags.and("result", "hit"), entityName,
+                    EntityStatistics::getCacheHitCount);
+            entityCounter("hibernate.entity.cache.requests", tags.and("result", "miss"), entityName,
+                    EntityStatistics::getCacheMissCount);
+        }
+        for (String role : statistics.getCollectionRoleNames()) {
+            Tags tags = Tags.of("role", simpleName(role));
+            collectionCounter("hibernate.collection.loads", tags, role, CollectionStatistics::getLoadCount);
+            collectionCounter("hibernate.collection.fetches", tags, role, CollectionStatistics::getFetchCount);
+            collectionCounter("hibernate.collection.recreates", tags, role, CollectionStatistics::getRecreateCount);
+        }
+        Gauge.builder("hibernate.query.plan.hit.ratio", statistics, HibernateStatisticsMetrics::queryPlanHitRatio)
+                .description("query plan cache hit ratio")
+                .register(meterRegistry);
+
+        // 쿼리별 실행 횟수/행 수/시간 (hibernate.query.*, query 태그), 처음 실행된 쿼리부터 등록된다
+        new HibernateQueryMetrics(sessionFactory, "entityManagerFactory", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("queryPlanCacheHit", statistics.getQueryPlanCacheHitCount());
+        summary.put("queryPlanCacheMiss", statistics.getQueryPlanCacheMissCount());
+        summary.put("queryPlanCacheHitRatio", queryPlanHitRatio(statistics));
+        summary.put("queryExecutions", statistics.getQueryExecutionCount());
+        summary.put("queryExecutionMaxTimeMillis", statistics.getQueryExecutionMaxTime());
+        summary.put("queryExecutionMaxTimeQuery", truncate(statistics.getQueryExecutionMaxTimeQueryString()));
+        summary.put("entityLoads", statistics.getEntityLoadCount());
+        summary.put("entityFetches", statistics.getEntityFetchCount());
+        summary.put("entityInserts", statistics.getEntityInsertCount());
+        summary.put("entityUpdates", statistics.getEntityUpdateCount());
+        summary.put("entityDeletes", statistics.getEntityDeleteCount());
+        summary.put("collectionLoads", statistics.getCollectionLoadCount());
+        summary.put("collectionFetches", statistics.getCollectionFetchCount());
+        summary.put("secondLevelCacheHits", statistics.getSecondLevelCacheHitCount());
+        summary.put("secondLevelCacheMisses", statistics.getSecondLevelCacheMissCount());
+        summary.put("secondLevelCachePuts", statistics.getSecondLevelCachePutCount());
+        summary.put("flushes", statistics.getFlushCount());
+        summary.put("connections", statistics.getConnectCount());
+        summary.put("preparedStatements", statistics.getPrepareStatementCount());
+        summary.put("sessionsOpened", statistics.getSessionOpenCount());
+        summary.put("transactions", statistics.getTransactionCount());
+
+        Map<String, Object> entities = new LinkedHashMap<>();
+        for (String entityName : statistics.getEntityNames()) {
+            EntityStatistics entity = statistics.getEntityStatistics(entityName);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("loads", entity.getLoadCount());
+            row.put("fetches", entity.getFetchCount());
+            row.put("inserts", entity.getInsertCount());
+            row.put("updates", entity.getUpdateCount());
+            row.put("deletes", entity.getDeleteCount());
+            row.put("cacheHits", entity.getCacheHitCount());
+            row.put("cacheMisses", entity.getCacheMissCount());
+            entities.put(simpleName(entityName), row);
+        }
+
+        Map<String, Object> collections = new LinkedHashMap<>();
+        for (String role : statistics.getCollectionRoleNames()) {
+            CollectionStatistics collection = statistics.getCollectionStatistics(role);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("loads", collection.getLoadCount());
+            row.put("fetches", collection.getFetchCount());
+            row.put("recreates", collection.getRecreateCount());
+            collections.put(simpleName(role), row);
+        }
+
+        // 최대 실행 시간 순
+        List<Map<String, Object>> queries = new ArrayList<>();
+        for (String query : statistics.getQueries()) {
+            QueryStatistics stats = statistics.getQueryStatistics(query);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("query", truncate(query));
+            row.put("executions", stats.getExecutionCount());
+            row.put("rows", stats.getExecutionRowCount());
+            row.put("avgTimeMillis", stats.getExecutionAvgTime());
+            row.put("maxTimeMillis", stats.getExecutionMaxTime());
+            row.put("minTimeMillis", stats.getExecutionMinTime());
+            row.put("planCacheHits", stats.getPlanCacheHitCount());
+            row.put("planCacheMisses", stats.getPlanCacheMissCount());
+            row.put("cacheHits", stats.getCacheHitCount());
+            row.put("cacheMisses", stats.getCacheMissCount());
+            queries.add(row);
+        }
+        queries.sort(Comparator.comparingLong((Map<String, Object> row) -> (Long) row.get("maxTimeMillis")).reversed());
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("startedAt", statistics.getStart().toString());
+        snapshot.put("summary", summary);
+        snapshot.put("entities", entities);
+        snapshot.put("collections", collections);
+        snapshot.put("queries", queries);
+        return snapshot;
+    }
+
+    /**
+     * 통계 초기화 (튜닝 전후 비교용)
+     */
+    public void clear() {
+        statistics.clear();
+    }
+
+    private void entityCounter(String name, Tags tags, String entityName, ToDoubleFunction<EntityStatistics> f) {
+        FunctionCounter.builder(name, statistics, s -> f.applyAsDouble(s.getEntityStatistics(entityName)))
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    private void collectionCounter(String name, Tags tags, String role, ToDoubleFunction<CollectionStatistics> f) {
+        FunctionCounter.builder(name, statistics, s -> f.applyAsDouble(s.getCollectionStatistics(role)))
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    private static double queryPlanHitRatio(Statistics statistics) {
+        long hit = statistics.getQueryPlanCacheHitCount();
+        long total = hit + statistics.getQueryPlanCacheMissCount();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    // study.querydsl.entity.Team.members -> Team.members
+    private static String simpleName(String name) {
+        int start = name.lastIndexOf('.');
+        if (Character.isLowerCase(name.charAt(start + 1))) {
+            start = name.lastIndexOf('.', start - 1);
+        }
+        return name.substring(start + 1);
+    }
+
+    private static String truncate(String query) {
+        return query != null && query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query;
+    }
+}
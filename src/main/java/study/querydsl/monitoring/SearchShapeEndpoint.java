@@ -0,0 +1,26 @@
+package study.querydsl.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/searchshapes: 검색 조건 조합별 사용량/지연시간/결과 건수
+ * 지연시간 히스토그램은 member.search.shape 미터로 확인
+ */
+@Component
+@Endpoint(id = "searchshapes")
+@RequiredArgsConstructor
+public class SearchShapeEndpoint {
+
+    private final SearchShapeMetrics searchShapeMetrics;
+
+    @ReadOperation
+    public List<Map<String, Object>> shapes() {
+        return searchShapeMetrics.snapshot();
+    }
+}
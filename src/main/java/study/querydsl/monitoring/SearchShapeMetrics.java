@@ -0,0 +1,165 @@
+package study.querydsl.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.MemberSearchCondition;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 검색 조건 조합(shape)별 호출 수, 지연시간, 결과 건수 집계
+ * shape 는 username/teamName/ageGoe/ageLoe 사용 여부 4비트 → 16개 슬롯
+ *
+ * 기록 경로는 미리 만들어 둔 배열/미터만 사용하므로 할당이 없다
+ */
+@Component
+public class SearchShapeMetrics {
+
+    public static final int USERNAME = 1;
+    public static final int TEAM_NAME = 1 << 1;
+    public static final int AGE_GOE = 1 << 2;
+    public static final int AGE_LOE = 1 << 3;
+
+    private static final int SHAPES = 16;
+
+    private final AtomicLongArray counts = new AtomicLongArray(SHAPES);
+    private final AtomicLongArray totalNanos = new AtomicLongArray(SHAPES);
+    private final AtomicLongArray maxNanos = new AtomicLongArray(SHAPES);
+    private final AtomicLongArray totalRows = new AtomicLongArray(SHAPES);
+    private final AtomicLongArray maxRows = new AtomicLongArray(SHAPES);
+    // 전체 결과 조회만 (페이지 조회의 content 건수는 page size 이하라 제외)
+    private final AtomicLongArray unpagedCounts = new AtomicLongArray(SHAPES);
+    private final AtomicLongArray unpagedRows = new AtomicLongArray(SHAPES);
+
+    private final Timer[] timers = new Timer[SHAPES];
+    private final DistributionSummary[] rows = new DistributionSummary[SHAPES];
+
+    public SearchShapeMetrics(MeterRegistry meterRegistry) {
+        for (int shape = 0; shape < SHAPES; shape++) {
+            String name = shapeName(shape);
+            timers[shape] = Timer.builder("member.search.shape")
+                    .tag("shape", name)
+                    .description("search query latency by filter shape")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            rows[shape] = DistributionSummary.builder("member.search.shape.rows")
+                    .tag("shape", name)
+                    .description("search result size by filter shape")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+
+    public static int shapeOf(MemberSearchCondition condition) {
+        int shape = 0;
+        if (hasText(condition.getUsername())) {
+            shape |= USERNAME;
+        }
+        if (hasText(condition.getTeamName())) {
+            shape |= TEAM_NAME;
+        }
+        if (condition.getAgeGoe() != null) {
+            shape |= AGE_GOE;
+        }
+        if (condition.getAgeLoe() != null) {
+            shape |= AGE_LOE;
+        }
+        return shape;
+    }
+
+    public static String shapeName(int shape) {
+        if (shape == 0) {
+            return "none";
+        }
+        StringBuilder name = new StringBuilder();
+        appendIf(name, shape, USERNAME, "username");
+        appendIf(name, shape, TEAM_NAME, "teamName");
+        appendIf(name, shape, AGE_GOE, "ageGoe");
+        appendIf(name, shape, AGE_LOE, "ageLoe");
+        return name.toString();
+    }
+
+    private static void appendIf(StringBuilder name, int shape, int bit, String field) {
+        if ((shape & bit) != 0) {
+            if (name.length() > 0) {
+                name.append('+');
+            }
+            name.append(field);
+        }
+    }
+
+    /**
+     * 페이징 없는 전체 결과 조회 기록, meanRows 에 반영된다
+     *
+     * @param startNanos 쿼리 시작 시각 (System.nanoTime)
+     * @param resultSize 조회 건수
+     */
+    public void record(MemberSearchCondition condition, long startNanos, int resultSize) {
+        int shape = shapeOf(condition);
+        unpagedCounts.incrementAndGet(shape);
+        unpagedRows.addAndGet(shape, resultSize);
+        record(shape, startNanos, resultSize);
+    }
+
+    /**
+     * 페이지/슬라이스 조회 기록, 지연시간과 결과 건수 미터에만 반영 (meanRows 제외)
+     *
+     * @param resultSize content 건수
+     */
+    public void recordPage(MemberSearchCondition condition, long startNanos, int resultSize) {
+        record(shapeOf(condition), startNanos, resultSize);
+    }
+
+    private void record(int shape, long startNanos, int resultSize) {
+        long elapsed = System.nanoTime() - startNanos;
+
+        counts.incrementAndGet(shape);
+        totalNanos.addAndGet(shape, elapsed);
+        maxNanos.accumulateAndGet(shape, elapsed, Math::max);
+        totalRows.addAndGet(shape, resultSize);
+        maxRows.accumulateAndGet(shape, resultSize, Math::max);
+
+        timers[shape].record(elapsed, TimeUnit.NANOSECONDS);
+        rows[shape].record(resultSize);
+    }
+
+    /**
+     * shape 의 전체 조회 평균 결과 건수, 기록이 없으면 -1
+     */
+    public double meanRows(int shape) {
+        long count = unpagedCounts.get(shape);
+        return count == 0 ? -1 : unpagedRows.get(shape) / (double) count;
+    }
+
+    /**
+     * 호출된 shape 만 호출 수 내림차순으로
+     */
+    public List<Map<String, Object>> snapshot() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (int shape = 0; shape < SHAPES; shape++) {
+            long count = counts.get(shape);
+            if (count == 0) {
+                continue;
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("shape", shapeName(shape));
+            entry.put("count", count);
+            entry.put("meanMillis", totalNanos.get(shape) / (double) count / 1_000_000);
+            entry.put("maxMillis", maxNanos.get(shape) / 1_000_000.0);
+            entry.put("meanRows", totalRows.get(shape) / (double) count);
+            entry.put("maxRows", maxRows.get(shape));
+            result.add(entry);
+        }
+        result.sort((a, b) -> Long.compare((Long) b.get("count"), (Long) a.get("count")));
+        return result;
+    }
+}
@@ -0,0 +1,22 @@
+package study.querydsl.monitoring;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+@Value
+public class SlowQuery {
+
+    Instant executedAt;
+    double elapsedMillis;
+    // 호출한 리포지토리 메서드 (Class.method)
+    String caller;
+    // 바인딩 값이 채워진 SQL (표시용, EXPLAIN 에는 원래 SQL 과 바인딩 값을 쓴다)
+    String sql;
+    // EXPLAIN 결과, 실행 전이거나 대상이 아니면 null
+    String plan;
+
+    SlowQuery withPlan(String plan) {
+        return new SlowQuery(executedAt, elapsedMillis, caller, sql, plan);
+    }
+}
@@ -0,0 +1,246 @@
+package study.querydsl.monitoring;
+
+import com.p6spy.engine.common.PreparedStatementInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 느린 쿼리 감지 (p6spy)
+ * 임계치를 넘은 쿼리의 바인딩 SQL, 실행 시간, 호출 리포지토리 메서드를 기록하고
+ * SELECT 는 별도 스레드에서 같은 커넥션 풀로 EXPLAIN 을 실행해 실행 계획을 붙인다
+ * EXPLAIN 은 값이 채워진 로그용 SQL 이 아니라 원래 SQL(?)에 실행 때 바인딩된 값을 다시 바인딩해 실행한다
+ *
+ * 최근 기록은 고정 크기 링 버퍼에 보관 (/actuator/slowqueries)
+ */
+@Slf4j(topic = "slow-query")
+@Component
+public class SlowQueryDetector extends SimpleJdbcEventListener implements DisposableBean {
+
+    private static final String REPOSITORY_PACKAGE = "study.querydsl.repository.";
+
+    // DataSource 가 이 리스너로 데코레이트되므로 지연 조회
+    private final ObjectProvider<DataSource> dataSource;
+    private final long thresholdNanos;
+    private final boolean explain;
+
+    private final AtomicReferenceArray<SlowQuery> buffer;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ThreadPoolExecutor explainExecutor;
+    // EXPLAIN 용, 스레드에서 마지막으로 값을 바인딩한 PreparedStatement 의 파라미터
+    private final ThreadLocal<Bindings> bindings = ThreadLocal.withInitial(Bindings::new);
+
+    public SlowQueryDetector(ObjectProvider<DataSource> dataSource,
+                             @Value("${member.slow-query.threshold:200ms}") Duration threshold,
+                             @Value("${member.slow-query.buffer-size:100}") int bufferSize,
+                             @Value("${member.slow-query.explain:true}") boolean explain) {
+        Assert.isTrue(bufferSize >= 1, "member.slow-query.buffer-size must be >= 1");
+        this.dataSource = dataSource;
+        this.thresholdNanos = threshold.toNanos();
+        this.explain = explain;
+        this.buffer = new AtomicReferenceArray<>(bufferSize);
+        // EXPLAIN 이 밀리면 버린다 (조회 경로에 영향 없도록)
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(bufferSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @Override
+    public void onAfterPreparedStatementSet(PreparedStatementInformation statementInformation, int parameterIndex,
+                                            Object value, SQLException e) {
+        if (explain) {
+            bindings.get().set(statementInformation, parameterIndex, value);
+        }
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        try {
+            record(statementInformation, timeElapsedNanos);
+        } finally {
+            // 바인딩 값을 붙잡아 두지 않도록 실행마다 비운다
+            if (explain) {
+                bindings.get().clear();
+            }
+        }
+    }
+
+    private void record(StatementInformation statementInformation, long timeElapsedNanos) {
+        if (timeElapsedNanos < thresholdNanos) {
+            return;
+        }
+        String sql = statementInformation.getSqlWithValues();
+        if (sql == null || isExplain(sql)) {
+            return;
+        }
+
+        SlowQuery slowQuery = new SlowQuery(Instant.now(), timeElapsedNanos / 1_000_000.0, caller(), sql, null);
+        int slot = store(slowQuery);
+
+        if (explain && isSelect(sql)) {
+            String explainSql = statementInformation.getSql();
+            Object[] parameters = bindings.get().values(statementInformation);
+            explainExecutor.execute(() -> explain(slot, slowQuery, explainSql, parameters));
+        } else {
+            logSlowQuery(slowQuery);
+        }
+    }
+
+    public List<SlowQuery> recent() {
+        List<SlowQuery> result = new ArrayList<>(buffer.length());
+        long last = sequence.get();
+        for (long i = last - 1; i >= 0 && i >= last - buffer.length(); i--) {
+            SlowQuery slowQuery = buffer.get((int) (i % buffer.length()));
+            if (slowQuery != null) {
+                result.add(slowQuery);
+            }
+        }
+        return result;
+    }
+
+    private int store(SlowQuery slowQuery) {
+        int slot = (int) (sequence.getAndIncrement() % buffer.length());
+        buffer.set(slot, slowQuery);
+        return slot;
+    }
+
+    private void explain(int slot, SlowQuery slowQuery, String sql, Object[] parameters) {
+        SlowQuery explained = slowQuery.withPlan(runExplain(sql, parameters));
+        // 그 사이 슬롯이 다른 기록으로 덮였으면 그대로 둔다
+        buffer.compareAndSet(slot, slowQuery, explained);
+        logSlowQuery(explained);
+    }
+
+    private String runExplain(String sql, Object[] parameters) {
+        try (Connection connection = dataSource.getObject().getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + stripComments(sql))) {
+            for (int i = 0; i < parameters.length; i++) {
+                if (parameters[i] == null) {
+                    statement.setNull(i + 1, Types.NULL);
+                } else {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+            }
+            return plan(statement);
+        } catch (SQLException | RuntimeException e) {
+            return "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+
+    private static String plan(PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            StringBuilder plan = new StringBuilder();
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                for (int i = 1; i <= columns; i++) {
+                    if (i > 1) {
+                        plan.append(" | ");
+                    }
+                    plan.append(rs.getString(i));
+                }
+                plan.append('\n');
+            }
+            return plan.toString().trim();
+        }
+    }
+
+    private void logSlowQuery(SlowQuery slowQuery) {
+        log.warn("slow query elapsedMs={} caller={} sql=[{}] plan=[{}]",
+                slowQuery.getElapsedMillis(), slowQuery.getCaller(),
+                oneLine(slowQuery.getSql()), oneLine(slowQuery.getPlan()));
+    }
+
+    /**
+     * 쿼리를 호출한 리포지토리 메서드 (느린 쿼리에서만 스택을 확인한다)
+     * 캐시/지원 클래스는 건너뛴다
+     */
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(REPOSITORY_PACKAGE)
+                        && !frame.getClassName().startsWith(REPOSITORY_PACKAGE + "cache.")
+                        && !frame.getClassName().startsWith(REPOSITORY_PACKAGE + "support."))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(REPOSITORY_PACKAGE.length()) + "." + frame.getMethodName())
+                .orElse("unknown"));
+    }
+
+    private static String stripComments(String sql) {
+        return sql.replaceAll("(?s)/\\*.*?\\*/", " ").trim();
+    }
+
+    private static boolean isSelect(String sql) {
+        return stripComments(sql).toLowerCase(Locale.ROOT).startsWith("select");
+    }
+
+    private static boolean isExplain(String sql) {
+        return sql.regionMatches(true, 0, "EXPLAIN", 0, 7);
+    }
+
+    private static String oneLine(String value) {
+        return value == null ? null : value.replaceAll("\\s+", " ");
+    }
+
+    @Override
+    public void destroy() {
+        explainExecutor.shutdownNow();
+    }
+
+    /**
+     * 바인딩 값 (1-based 인덱스 → 배열), 다른 statement 의 값이 들어오면 새로 시작한다
+     */
+    private static class Bindings {
+        private Object owner;
+        private Object[] values = new Object[16];
+        private int count;
+
+        void set(Object statement, int parameterIndex, Object value) {
+            if (owner != statement) {
+                clear();
+                owner = statement;
+            }
+            if (parameterIndex > values.length) {
+                values = Arrays.copyOf(values, Math.max(parameterIndex, values.length * 2));
+            }
+            values[parameterIndex - 1] = value;
+            count = Math.max(count, parameterIndex);
+        }
+
+        Object[] values(Object statement) {
+            return owner == statement ? Arrays.copyOf(values, count) : new Object[0];
+        }
+
+        void clear() {
+            Arrays.fill(values, 0, count, null);
+            count = 0;
+            owner = null;
+        }
+    }
+}
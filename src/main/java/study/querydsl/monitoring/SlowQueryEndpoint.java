@@ -0,0 +1,24 @@
+package study.querydsl.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * /actuator/slowqueries: 최근 느린 쿼리 (최신순)
+ */
+@Component
+@Endpoint(id = "slowqueries")
+@RequiredArgsConstructor
+public class SlowQueryEndpoint {
+
+    private final SlowQueryDetector slowQueryDetector;
+
+    @ReadOperation
+    public List<SlowQuery> slowQueries() {
+        return slowQueryDetector.recent();
+    }
+}
@@ -0,0 +1,145 @@
+package study.querydsl.monitoring.jfr;
+
+import jdk.jfr.EventType;
+import org.springframework.data.domain.Slice;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.monitoring.SearchShapeMetrics;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 리포지토리 JFR 이벤트 기록
+ * call() 이 현재 스레드에 메서드/shape 를 등록하고, 그 안의 content() / count() 구간과 JDBC statement 이벤트가 이를 참조한다
+ *
+ * 두 이벤트 타입이 모두 비활성화되어 있으면 call() 은 volatile 읽기 두 번 후 바로 위임하고,
+ * content() / count() 는 등록된 컨텍스트가 없으므로 아무것도 하지 않는다
+ */
+public final class QueryEvents {
+
+    private static final EventType REPOSITORY = EventType.getEventType(RepositoryEvent.class);
+    private static final EventType STATEMENT = EventType.getEventType(StatementEvent.class);
+    private static final ThreadLocal<Context> CURRENT = new ThreadLocal<>();
+
+    private QueryEvents() {
+    }
+
+    public static <T> T call(String repository, String method, MemberSearchCondition condition, Supplier<T> call) {
+        if (!REPOSITORY.isEnabled() && !STATEMENT.isEnabled()) {
+            return call.get();
+        }
+
+        Context previous = CURRENT.get();
+        Context context = new Context(repository, method,
+                condition != null ? SearchShapeMetrics.shapeName(SearchShapeMetrics.shapeOf(condition)) : "none");
+        CURRENT.set(context);
+        RepositoryEvent event = new RepositoryEvent();
+        event.begin();
+        try {
+            T result = call.get();
+            commit(event, context, "call", rows(result));
+            return result;
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public static <T> List<T> content(Supplier<List<T>> query) {
+        return phase("content", query);
+    }
+
+    public static <T> List<T> ids(Supplier<List<T>> query) {
+        return phase("ids", query);
+    }
+
+    /**
+     * PageableExecutionUtils.getPage 의 count supplier 용, 지연 실행 시점에 구간을 기록한다
+     */
+    public static LongSupplier count(LongSupplier query) {
+        Context context = CURRENT.get();
+        if (context == null) {
+            return query;
+        }
+        return () -> {
+            String previousPhase = context.phase;
+            context.phase = "count";
+            RepositoryEvent event = new RepositoryEvent();
+            event.begin();
+            try {
+                long total = query.getAsLong();
+                commit(event, context, "count", total);
+                return total;
+            } finally {
+                context.phase = previousPhase;
+            }
+        };
+    }
+
+    private static <T> List<T> phase(String phase, Supplier<List<T>> query) {
+        Context context = CURRENT.get();
+        if (context == null) {
+            return query.get();
+        }
+
+        String previousPhase = context.phase;
+        context.phase = phase;
+        RepositoryEvent event = new RepositoryEvent();
+        event.begin();
+        try {
+            List<T> result = query.get();
+            commit(event, context, phase, result.size());
+            return result;
+        } finally {
+            context.phase = previousPhase;
+        }
+    }
+
+    private static void commit(RepositoryEvent event, Context context, String phase, long rows) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.repository = context.repository;
+            event.method = context.method;
+            event.shape = context.shape;
+            event.phase = phase;
+            event.rows = rows;
+            event.commit();
+        }
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        return result != null ? 1 : 0;
+    }
+
+    static Context current() {
+        return CURRENT.get();
+    }
+
+    static final class Context {
+        final String repository;
+        final String method;
+        final String shape;
+        volatile String phase;
+
+        Context(String repository, String method, String shape) {
+            this.repository = repository;
+            this.method = method;
+            this.shape = shape;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package study.querydsl.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 리포지토리 메서드 호출(phase=call) 또는 그 안의 content / count 쿼리 구간
+ */
+@Name("study.querydsl.Repository")
+@Label("Repository Query")
+@Category({"Querydsl", "Repository"})
+@Description("Repository method call and its content/count query phases")
+@StackTrace(false)
+class RepositoryEvent extends jdk.jfr.Event {
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("Condition Shape")
+    String shape;
+
+    @Label("Phase")
+    @Description("call, content, count or ids")
+    String phase;
+
+    @Label("Rows")
+    @Description("result rows, or the total for count phases")
+    long rows;
+}
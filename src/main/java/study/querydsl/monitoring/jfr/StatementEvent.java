@@ -0,0 +1,38 @@
+package study.querydsl.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDBC statement 실행 한 건, 실행 중인 리포지토리 메서드/shape/phase 를 함께 기록
+ */
+@Name("study.querydsl.Statement")
+@Label("JDBC Statement")
+@Category({"Querydsl", "JDBC"})
+@Description("Single JDBC statement execution with the repository context it ran in")
+class StatementEvent extends jdk.jfr.Event {
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("Condition Shape")
+    String shape;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Update Count")
+    @Description("affected rows for updates and batches, -1 for queries")
+    long rows = -1;
+
+    @Label("Failed")
+    boolean failed;
+}
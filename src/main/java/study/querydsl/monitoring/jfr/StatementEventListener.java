@@ -0,0 +1,76 @@
+package study.querydsl.monitoring.jfr;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * p6spy 로 실행되는 JDBC statement 마다 StatementEvent 기록
+ * 이벤트가 비활성화되어 있으면 실행 전 isEnabled() 확인만 한다
+ */
+@Component
+public class StatementEventListener extends SimpleJdbcEventListener {
+
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private final ThreadLocal<StatementEvent> current = new ThreadLocal<>();
+
+    @Override
+    public void onBeforeAnyExecute(StatementInformation statementInformation) {
+        StatementEvent event = new StatementEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            current.set(event);
+        }
+    }
+
+    @Override
+    public void onAfterExecuteUpdate(StatementInformation statementInformation, long timeElapsedNanos,
+                                     int rowCount, SQLException e) {
+        StatementEvent event = current.get();
+        if (event != null) {
+            event.rows = rowCount;
+        }
+        super.onAfterExecuteUpdate(statementInformation, timeElapsedNanos, rowCount, e);
+    }
+
+    @Override
+    public void onAfterExecuteBatch(StatementInformation statementInformation, long timeElapsedNanos,
+                                    int[] updateCounts, SQLException e) {
+        StatementEvent event = current.get();
+        if (event != null && updateCounts != null) {
+            long rows = 0;
+            for (int count : updateCounts) {
+                rows += Math.max(count, 0);
+            }
+            event.rows = rows;
+        }
+        super.onAfterExecuteBatch(statementInformation, timeElapsedNanos, updateCounts, e);
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        StatementEvent event = current.get();
+        if (event == null) {
+            return;
+        }
+        current.remove();
+
+        event.end();
+        if (event.shouldCommit()) {
+            String sql = statementInformation.getSql();
+            event.sql = sql != null && sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) : sql;
+            event.failed = e != null;
+            QueryEvents.Context context = QueryEvents.current();
+            if (context != null) {
+                event.repository = context.repository;
+                event.method = context.method;
+                event.shape = context.shape;
+                event.phase = context.phase;
+            }
+            event.commit();
+        }
+    }
+}
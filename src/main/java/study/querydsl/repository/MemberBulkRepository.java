@@ -0,0 +1,151 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import study.querydsl.dto.MemberBulkResult;
+import study.querydsl.dto.MemberBulkRow;
+import study.querydsl.entity.PooledLoSequenceGenerator;
+import study.querydsl.repository.shard.ShardedMemberRepository;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 대량 회원 등록 전용 리포지토리
+ * 영속성 컨텍스트를 거치지 않고 JDBC batch insert 로 청크 단위 저장
+ *
+ * 청크마다 별도 트랜잭션으로 커밋한다 (요청 전체가 하나의 트랜잭션이 아님)
+ * DB 오류가 난 청크는 통째로 롤백되고 그 청크의 행은 모두 실패로 기록되며, 다음 청크는 계속 저장한다
+ * 샤딩 사용 시 커밋된 청크의 행을 소유 샤드에도 저장한다 (엔티티 이벤트를 거치지 않으므로 직접 호출)
+ */
+@Repository
+@RequiredArgsConstructor
+public class MemberBulkRepository {
+
+    private static final String INSERT_SQL = "insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)";
+    private static final int[] INSERT_TYPES = {Types.BIGINT, Types.VARCHAR, Types.INTEGER, Types.BIGINT};
+
+    private final JPAQueryFactory queryFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory emf;
+    private final TransactionTemplate transactionTemplate;
+    // member.sharding.enabled=true 일 때만 존재
+    private final ObjectProvider<ShardedMemberRepository> shardedMemberRepository;
+
+    private String nextValSql;
+    private int allocationSize;
+
+    @PostConstruct
+    public void init() {
+        // id는 엔티티와 같은 pooled-lo 시퀀스에서 블록 단위로 확보 (시퀀스 값 = 블록의 첫 id)
+        SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        nextValSql = dialect.getSequenceNextValString("member_seq");
+        allocationSize = PooledLoSequenceGenerator.allocationSize(sessionFactory.getProperties());
+    }
+
+    public void insertChunk(List<MemberBulkRow> rows, MemberBulkResult result) {
+        Map<Long, String> unknownTeams = new LinkedHashMap<>();
+        List<Object[]> inserted;
+        try {
+            inserted = transactionTemplate.execute(status -> insert(rows, unknownTeams));
+        } catch (DataAccessException e) {
+            // 청크 롤백: 팀이 없는 행은 원래 사유로, 나머지는 DB 오류로 실패 처리
+            String reason = "chunk rolled back: " + e.getMostSpecificCause().getMessage();
+            for (MemberBulkRow row : rows) {
+                result.fail(row.getIndex(), unknownTeams.getOrDefault(row.getIndex(), reason));
+            }
+            result.rollBackChunk();
+            return;
+        }
+
+        unknownTeams.forEach(result::fail);
+        result.accept(inserted.size());
+        if (!inserted.isEmpty()) {
+            shardedMemberRepository.ifAvailable(sharded -> sharded.insertMembers(inserted));
+        }
+    }
+
+    private List<Object[]> insert(List<MemberBulkRow> rows, Map<Long, String> unknownTeams) {
+        Map<String, Long> teamIds = findTeamIds(rows);
+
+        List<Object[]> batchArgs = new ArrayList<>(rows.size());
+        IdBlock ids = new IdBlock();
+        for (MemberBulkRow row : rows) {
+            Long teamId = null;
+            if (hasText(row.getTeamName())) {
+                teamId = teamIds.get(row.getTeamName());
+                if (teamId == null) {
+                    unknownTeams.put(row.getIndex(), "unknown team: " + row.getTeamName());
+                    continue;
+                }
+            }
+            batchArgs.add(new Object[]{ids.next(), row.getUsername(), row.getAge(), teamId});
+        }
+
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs, INSERT_TYPES);
+        }
+        return batchArgs;
+    }
+
+    /**
+     * 시퀀스 한 번 호출로 allocationSize 개의 id 사용
+     */
+    private class IdBlock {
+        private long next;
+        private int remaining;
+
+        long next() {
+            if (remaining == 0) {
+                next = jdbcTemplate.queryForObject(nextValSql, Long.class);
+                remaining = allocationSize;
+            }
+            remaining--;
+            return next++;
+        }
+    }
+
+    /**
+     * 청크에 등장하는 팀 이름을 한 번의 쿼리로 조회
+     */
+    private Map<String, Long> findTeamIds(List<MemberBulkRow> rows) {
+        Set<String> teamNames = rows.stream()
+                .map(MemberBulkRow::getTeamName)
+                .filter(StringUtils::hasText)
+                .collect(toSet());
+        if (teamNames.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<Tuple> fetch = queryFactory
+                .select(team.name, team.id)
+                .from(team)
+                .where(team.name.in(teamNames))
+                .fetch();
+
+        return fetch.stream()
+                .collect(toMap(t -> t.get(team.name), t -> t.get(team.id), (a, b) -> a));
+    }
+}
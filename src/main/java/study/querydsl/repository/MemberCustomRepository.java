@@ -2,15 +2,23 @@ package study.querydsl.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface MemberCustomRepository {
 
     List<MemberTeamDto> search(MemberSearchCondition condition);
     Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
+    Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable);
+
+    // 요청한 필드만 조회
+    List<Map<String, Object>> searchFields(MemberSearchCondition condition, Set<MemberField> fields);
+    Page<Map<String, Object>> searchPageFields(MemberSearchCondition condition, Pageable pageable, Set<MemberField> fields);
 
 }
@@ -0,0 +1,90 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.hibernate.HibernateQuery;
+import com.querydsl.jpa.hibernate.StatelessSessionHolder;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.function.Consumer;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+import static study.querydsl.repository.support.LambdaProjections.constructor;
+
+/**
+ * 대용량 조회(export) 전용 리포지토리
+ * StatelessSession + forward-only scroll 로 영속성 컨텍스트 없이 한 행씩 흘려보낸다
+ */
+@Repository
+@RequiredArgsConstructor
+public class MemberExportRepository {
+
+    private final EntityManagerFactory emf;
+
+    @Value("${member.export.fetch-size:1000}")
+    private int fetchSize;
+
+    public long forEach(MemberSearchCondition condition, Consumer<MemberTeamDto> action) {
+        SessionFactory sessionFactory = emf.unwrap(SessionFactory.class);
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            ScrollableResults results = new HibernateQuery<Void>(new StatelessSessionHolder(session), HQLTemplates.DEFAULT)
+                    .select(constructor(MemberTeamDto.class,
+                            member.id.as("memberId")
+                            , member.username
+                            , member.age
+                            , team.id.as("teamId")
+                            , team.name.as("teamName")
+                    ))
+                    .from(member)
+                    .leftJoin(member.team, team)
+                    .where(usernameEq(condition.getUsername())
+                            , teamNameEq(condition.getTeamName())
+                            , ageGoe(condition.getAgeGoe())
+                            , ageLoe(condition.getAgeLoe()))
+                    .orderBy(member.id.asc())
+                    .setFetchSize(fetchSize)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+            try {
+                long count = 0;
+                while (results.next()) {
+                    action.accept((MemberTeamDto) results.get(0));
+                    count++;
+                }
+                return count;
+            } finally {
+                results.close();
+            }
+        } finally {
+            session.close();
+        }
+    }
+
+    private BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe != null ? member.age.loe(ageLoe) : null;
+    }
+
+    private BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe != null ? member.age.goe(ageGoe) : null;
+    }
+
+    private BooleanExpression teamNameEq(String teamName) {
+        return hasText(teamName) ? team.name.eq(teamName) : null;
+    }
+
+    private BooleanExpression usernameEq(String username) {
+        return hasText(username) ? member.username.eq(username) : null;
+    }
+}
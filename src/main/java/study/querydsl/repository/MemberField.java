@@ -0,0 +1,71 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.Expression;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toMap;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 검색 응답에서 선택 가능한 필드 (fields= 파라미터)
+ * teamId 는 member.team_id 컬럼으로 조회하므로 team 조인이 필요 없다
+ */
+public enum MemberField {
+
+    MEMBER_ID("memberId", member.id, false),
+    USERNAME("username", member.username, false),
+    AGE("age", member.age, false),
+    TEAM_ID("teamId", member.team.id, false),
+    TEAM_NAME("teamName", team.name, true);
+
+    private static final Map<String, MemberField> BY_NAME = Arrays.stream(values())
+            .collect(toMap(MemberField::getName, Function.identity()));
+
+    private final String name;
+    private final Expression<?> expression;
+    private final boolean teamJoin;
+
+    MemberField(String name, Expression<?> expression, boolean teamJoin) {
+        this.name = name;
+        this.expression = expression;
+        this.teamJoin = teamJoin;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Expression<?> getExpression() {
+        return expression;
+    }
+
+    public boolean isTeamJoin() {
+        return teamJoin;
+    }
+
+    /**
+     * "memberId,username" 형태의 목록 파싱, 비어 있으면 전체 필드
+     */
+    public static Set<MemberField> parse(String fields) {
+        Set<MemberField> result = EnumSet.noneOf(MemberField.class);
+        if (fields != null) {
+            for (String name : fields.split(",")) {
+                if (name.isBlank()) {
+                    continue;
+                }
+                MemberField field = BY_NAME.get(name.trim());
+                if (field == null) {
+                    throw new IllegalArgumentException("unknown field: " + name.trim());
+                }
+                result.add(field);
+            }
+        }
+        return result.isEmpty() ? EnumSet.allOf(MemberField.class) : result;
+    }
+}
@@ -3,6 +3,7 @@ package study.querydsl.repository;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Order;
 import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.impl.JPAQuery;
@@ -11,14 +12,23 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.dto.QMemberTeamDto;
 import study.querydsl.entity.Member;
+import study.querydsl.monitoring.SearchShapeMetrics;
+import study.querydsl.monitoring.jfr.QueryEvents;
+import study.querydsl.repository.cache.SearchResultCache;
 
 import javax.persistence.EntityManager;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.entity.QMember.member;
@@ -30,11 +40,22 @@ public class MemberJpaRepository {
 
     private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final SearchResultCache searchResultCache;
+    private final SearchShapeMetrics searchShapeMetrics;
+    private final MemberWriteBehind memberWriteBehind;
+    private final PlatformTransactionManager transactionManager;
 
     public void save(Member member) {
         em.persist(member);
     }
 
+    /**
+     * write-behind 저장: 배치 트랜잭션 커밋 후 완료되는 future 반환
+     */
+    public CompletableFuture<Member> saveAsync(Member member) {
+        return memberWriteBehind.save(member);
+    }
+
     public Optional<Member> findById(Long id) {
         Member findMember = em.find(Member.class, id);
         return Optional.ofNullable(findMember);
@@ -60,6 +81,67 @@ public class MemberJpaRepository {
                 .fetch();
     }
 
+    /**
+     * 관리 상태의 회원을 id 순으로 chunkSize 건씩 action 에 전달 (수정 가능)
+     * chunk 마다 flush + clear 하므로 영속성 컨텍스트 크기는 chunkSize 를 넘지 않는다
+     *
+     * commitPerChunk=false: 호출자의 트랜잭션에 참여 (없으면 전체를 한 트랜잭션으로), 호출자의 영속성 컨텍스트도 비워진다
+     * commitPerChunk=true: chunk 마다 새 트랜잭션으로 커밋, 실패 시 해당 chunk 만 롤백
+     *
+     * @param predicate 조건 (null 이면 전체)
+     * @return 처리한 회원 수
+     */
+    public long forEachMemberChunk(Predicate predicate, int chunkSize, boolean commitPerChunk,
+                                   Consumer<List<Member>> action) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        if (commitPerChunk) {
+            TransactionTemplate perChunk = new TransactionTemplate(transactionManager);
+            perChunk.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            return forEachChunk(predicate, chunkSize, perChunk, action);
+        }
+        return new TransactionTemplate(transactionManager)
+                .execute(status -> forEachChunk(predicate, chunkSize, null, action));
+    }
+
+    public long forEachMemberChunk(Predicate predicate, int chunkSize, Consumer<List<Member>> action) {
+        return forEachMemberChunk(predicate, chunkSize, false, action);
+    }
+
+    private long forEachChunk(Predicate predicate, int chunkSize, TransactionTemplate perChunk,
+                              Consumer<List<Member>> action) {
+        long processed = 0;
+        Long lastId = null;
+        while (true) {
+            Long afterId = lastId;
+            Supplier<List<Member>> chunk = () -> {
+                List<Member> members = queryFactory
+                        .selectFrom(member)
+                        .where(predicate, afterId != null ? member.id.gt(afterId) : null)
+                        .orderBy(member.id.asc())
+                        .limit(chunkSize)
+                        .fetch();
+                if (!members.isEmpty()) {
+                    action.accept(members);
+                }
+                em.flush();
+                em.clear();
+                return members;
+            };
+            List<Member> members = perChunk != null ? perChunk.execute(status -> chunk.get()) : chunk.get();
+
+            if (members.isEmpty()) {
+                return processed;
+            }
+            processed += members.size();
+            lastId = members.get(members.size() - 1).getId();
+            if (members.size() < chunkSize) {
+                return processed;
+            }
+        }
+    }
+
     public List<Member> findAll_OrderBy(Pageable pageable) {
         JPAQuery<Member> query = queryFactory
                 .selectFrom(member);
@@ -87,6 +169,12 @@ public class MemberJpaRepository {
     }
 
     public List<MemberTeamDto> searchByBuilder(MemberSearchCondition condition) {
+        return QueryEvents.call("MemberJpaRepository", "searchByBuilder", condition,
+                () -> searchByBuilderQuery(condition));
+    }
+
+    private List<MemberTeamDto> searchByBuilderQuery(MemberSearchCondition condition) {
+        long start = System.nanoTime();
 
         BooleanBuilder builder = new BooleanBuilder();
 
@@ -103,7 +191,7 @@ public class MemberJpaRepository {
             builder.and(member.age.loe(condition.getAgeLoe()));
         }
 
-        return queryFactory
+        List<MemberTeamDto> content = QueryEvents.content(() -> queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId")
                         , member.username
@@ -114,11 +202,21 @@ public class MemberJpaRepository {
                 .from(member)
                 .leftJoin(member.team, team)
                 .where(builder)
-                .fetch();
+                .fetch());
+
+        searchShapeMetrics.record(condition, start, content.size());
+        return content;
     }
 
     public List<MemberTeamDto> searchByWhereParameter(MemberSearchCondition condition) {
-        return queryFactory
+        return QueryEvents.call("MemberJpaRepository", "searchByWhereParameter", condition,
+                () -> searchResultCache.get("searchByWhereParameter", condition, null,
+                        () -> searchByWhereParameterQuery(condition)));
+    }
+
+    private List<MemberTeamDto> searchByWhereParameterQuery(MemberSearchCondition condition) {
+        long start = System.nanoTime();
+        List<MemberTeamDto> content = QueryEvents.content(() -> queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId")
                         , member.username
@@ -132,7 +230,10 @@ public class MemberJpaRepository {
                         , teamNameEq(condition.getTeamName())
                         , ageGoe(condition.getAgeGoe())
                         , ageLoe(condition.getAgeLoe()))
-                .fetch();
+                .fetch());
+
+        searchShapeMetrics.record(condition, start, content.size());
+        return content;
     }
 
     private BooleanExpression ageLoe(Integer ageLoe) {
@@ -0,0 +1,339 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import study.querydsl.dto.MemberScanResult;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.FlushModeType;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+import static study.querydsl.repository.support.LambdaProjections.constructor;
+
+/**
+ * 전체 테이블 병렬 스캔 (export, 배치 작업용)
+ * member.id 범위를 구간으로 나눠 제한된 스레드 풀에서 동시에 읽는다
+ * 구간마다 별도의 읽기 전용 EntityManager(커넥션)를 사용한다
+ * 동시에 여는 커넥션은 모든 스캔을 합쳐 parallelism 개이고, 검색 API 가 굶지 않도록 커넥션 풀의 절반을 넘지 않는다
+ */
+@Slf4j
+@Repository
+public class MemberParallelScanRepository implements DisposableBean {
+
+    private final EntityManagerFactory emf;
+    private final ExecutorService executor;
+    private final int parallelism;
+    // 구간 조회가 동시에 여는 커넥션 수 제한 (parallel stream 은 공용 ForkJoinPool 에서 돌기 때문에 스레드 수로는 막을 수 없다)
+    private final Semaphore connections;
+    // 한 번에 읽는 id 구간 폭
+    private final long segmentSize;
+
+    public MemberParallelScanRepository(EntityManagerFactory emf,
+                                        DataSource dataSource,
+                                        @Value("${member.scan.parallelism:0}") int parallelism,
+                                        @Value("${member.scan.segment-size:10000}") long segmentSize) {
+        this.emf = emf;
+        int requested = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        int maxConnections = maxScanConnections(dataSource, requested);
+        this.parallelism = Math.min(requested, maxConnections);
+        if (this.parallelism < requested) {
+            log.info("member scan parallelism capped: requested = {}, connections = {}", requested, this.parallelism);
+        }
+        this.connections = new Semaphore(this.parallelism);
+        this.segmentSize = Math.max(1, segmentSize);
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "member-scan-" + threads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 커넥션 풀 크기의 절반 (최소 1), 풀 크기를 알 수 없으면 요청한 값 그대로
+     */
+    private static int maxScanConnections(DataSource dataSource, int requested) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                int maximumPoolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+                return Math.max(1, maximumPoolSize / 2);
+            }
+        } catch (SQLException e) {
+            log.warn("cannot read connection pool size, member scan parallelism is not capped", e);
+        }
+        return requested;
+    }
+
+    /**
+     * 조건에 맞는 회원을 모두 읽어 action 에 전달
+     * ordered=true 면 id 순서대로 호출 스레드에서 전달 (구간 결과를 최대 parallelism * 2 개까지 버퍼링)
+     * ordered=false 면 작업 스레드에서 읽는 즉시 전달하므로 action 은 스레드 안전해야 한다
+     */
+    public MemberScanResult scan(MemberSearchCondition condition, boolean ordered, Consumer<MemberTeamDto> action) {
+        long start = System.nanoTime();
+        MemberScanResult result = new MemberScanResult();
+        result.setParallelism(parallelism);
+        result.setOrdered(ordered);
+
+        long[] range = idRange();
+        if (range != null) {
+            List<long[]> segments = segments(range[0], range[1]);
+            result.setSegments(segments.size());
+            result.setRows(ordered
+                    ? scanOrdered(condition, segments, action)
+                    : scanUnordered(condition, segments, action));
+        }
+
+        result.finish((System.nanoTime() - start) / 1_000_000);
+        log.info("member scan: rows = {}, segments = {}, parallelism = {}, ordered = {}, {} ms, {} rows/s",
+                result.getRows(), result.getSegments(), parallelism, ordered,
+                result.getElapsedMillis(), String.format("%.0f", result.getRowsPerSecond()));
+        return result;
+    }
+
+    /**
+     * id 범위 Spliterator: trySplit 으로 구간을 반씩 나누며, 구간을 segmentSize 단위로 읽는다
+     * parallel stream 은 공용 ForkJoinPool 에서 실행되며, 구간 조회는 스캔과 같은 커넥션 수 제한을 받는다
+     */
+    public Spliterator<MemberTeamDto> spliterator(MemberSearchCondition condition) {
+        long[] range = idRange();
+        if (range == null) {
+            return Collections.<MemberTeamDto>emptyList().spliterator();
+        }
+        return new IdRangeSpliterator(condition, range[0], range[1] + 1);
+    }
+
+    public Stream<MemberTeamDto> stream(MemberSearchCondition condition, boolean parallel) {
+        return StreamSupport.stream(spliterator(condition), parallel);
+    }
+
+    private long scanUnordered(MemberSearchCondition condition, List<long[]> segments, Consumer<MemberTeamDto> action) {
+        AtomicLong rows = new AtomicLong();
+        List<Future<?>> futures = new ArrayList<>(segments.size());
+        for (long[] segment : segments) {
+            futures.add(executor.submit(() -> {
+                List<MemberTeamDto> content = fetchSegment(condition, segment[0], segment[1]);
+                content.forEach(action);
+                rows.addAndGet(content.size());
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                await(future);
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return rows.get();
+    }
+
+    private long scanOrdered(MemberSearchCondition condition, List<long[]> segments, Consumer<MemberTeamDto> action) {
+        long rows = 0;
+        int window = parallelism * 2;
+        Deque<Future<List<MemberTeamDto>>> inFlight = new ArrayDeque<>(window);
+        Iterator<long[]> pending = segments.iterator();
+        try {
+            while (pending.hasNext() || !inFlight.isEmpty()) {
+                while (pending.hasNext() && inFlight.size() < window) {
+                    long[] segment = pending.next();
+                    inFlight.add(executor.submit(() -> fetchSegment(condition, segment[0], segment[1])));
+                }
+                List<MemberTeamDto> content = await(inFlight.poll());
+                content.forEach(action);
+                rows += content.size();
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+        return rows;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("member scan interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private List<long[]> segments(long minId, long maxId) {
+        List<long[]> segments = new ArrayList<>();
+        for (long from = minId; from <= maxId; from += segmentSize) {
+            segments.add(new long[]{from, Math.min(maxId, from + segmentSize - 1)});
+        }
+        return segments;
+    }
+
+    /**
+     * [min(id), max(id)], 데이터가 없으면 null
+     */
+    private long[] idRange() {
+        EntityManager em = openReadOnly();
+        try {
+            Tuple tuple = new JPAQueryFactory(em)
+                    .select(member.id.min(), member.id.max())
+                    .from(member)
+                    .fetchOne();
+            if (tuple == null || tuple.get(0, Long.class) == null) {
+                return null;
+            }
+            return new long[]{tuple.get(0, Long.class), tuple.get(1, Long.class)};
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * 구간 [fromId, toId] 조회, 구간마다 새 EntityManager
+     */
+    private List<MemberTeamDto> fetchSegment(MemberSearchCondition condition, long fromId, long toId) {
+        try {
+            connections.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("member scan interrupted", e);
+        }
+        EntityManager em = openReadOnly();
+        try {
+            return new JPAQueryFactory(em)
+                    .select(constructor(MemberTeamDto.class,
+                            member.id.as("memberId")
+                            , member.username
+                            , member.age
+                            , team.id.as("teamId")
+                            , team.name.as("teamName")
+                    ))
+                    .from(member)
+                    .leftJoin(member.team, team)
+                    .where(member.id.between(fromId, toId)
+                            , usernameEq(condition.getUsername())
+                            , teamNameEq(condition.getTeamName())
+                            , ageGoe(condition.getAgeGoe())
+                            , ageLoe(condition.getAgeLoe()))
+                    .orderBy(member.id.asc())
+                    .fetch();
+        } finally {
+            em.close();
+            connections.release();
+        }
+    }
+
+    private EntityManager openReadOnly() {
+        EntityManager em = emf.createEntityManager();
+        em.setFlushMode(FlushModeType.COMMIT);
+        em.unwrap(Session.class).setDefaultReadOnly(true);
+        return em;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe != null ? member.age.loe(ageLoe) : null;
+    }
+
+    private BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe != null ? member.age.goe(ageGoe) : null;
+    }
+
+    private BooleanExpression teamNameEq(String teamName) {
+        return hasText(teamName) ? team.name.eq(teamName) : null;
+    }
+
+    private BooleanExpression usernameEq(String username) {
+        return hasText(username) ? member.username.eq(username) : null;
+    }
+
+    /**
+     * [from, to) id 구간. 분할되지 않은 나머지는 segmentSize 단위로 순서대로 읽는다
+     */
+    private class IdRangeSpliterator implements Spliterator<MemberTeamDto> {
+
+        private final MemberSearchCondition condition;
+        private long from;
+        private final long to;
+        private Iterator<MemberTeamDto> buffer = Collections.emptyIterator();
+
+        IdRangeSpliterator(MemberSearchCondition condition, long from, long to) {
+            this.condition = condition;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super MemberTeamDto> action) {
+            while (!buffer.hasNext()) {
+                if (from >= to) {
+                    return false;
+                }
+                long end = Math.min(to, from + segmentSize);
+                buffer = fetchSegment(condition, from, end - 1).iterator();
+                from = end;
+            }
+            action.accept(buffer.next());
+            return true;
+        }
+
+        @Override
+        public Spliterator<MemberTeamDto> trySplit() {
+            // 버퍼를 읽는 중이면 순서 보장을 위해 분할하지 않는다
+            if (buffer.hasNext() || to - from <= segmentSize) {
+                return null;
+            }
+            long mid = from + (to - from) / 2;
+            Spliterator<MemberTeamDto> prefix = new IdRangeSpliterator(condition, from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | NONNULL;
+        }
+    }
+}
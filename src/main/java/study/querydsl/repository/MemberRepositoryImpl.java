@@ -1,33 +1,98 @@
 package study.querydsl.repository;
 
 import com.querydsl.core.QueryResults;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
-import com.querydsl.jpa.impl.JPAQueryFactory;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.support.PageableExecutionUtils;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.monitoring.SearchShapeMetrics;
+import study.querydsl.monitoring.jfr.QueryEvents;
+import study.querydsl.repository.cache.SearchResultCache;
+import study.querydsl.repository.shard.ShardedMemberRepository;
+import study.querydsl.repository.support.DeferredJoin;
+import study.querydsl.repository.support.Querydsl4RepositorySupport;
+import study.querydsl.repository.support.SearchSingleFlight;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.entity.QMember.member;
 import static study.querydsl.entity.QTeam.team;
 
-@RequiredArgsConstructor
-public class MemberRepositoryImpl implements MemberCustomRepository {
+/**
+ * member.sharding.enabled=true 면 search / searchPageComplex / searchSlice 는 샤드에서 읽는다
+ * (저장은 ShardWriteListener 가 커밋 후 샤드에 반영, 나머지 조회는 기본 DB)
+ */
+public class MemberRepositoryImpl extends Querydsl4RepositorySupport implements MemberCustomRepository {
 
-    private final JPAQueryFactory queryFactory;
+    private static final String REPOSITORY = "MemberCustomRepository";
+
+    // searchPageComplex / searchSlice / searchPageFields 정렬 가능 속성 (DTO 속성명과 엔티티 경로 모두 허용), team 은 명시적 left join 별칭을 쓴다
+    private static final Map<String, ComparableExpressionBase<?>> SORT_PROPERTIES = Map.of(
+            "memberId", member.id,
+            "id", member.id,
+            "username", member.username,
+            "age", member.age,
+            "teamId", team.id,
+            "team.id", team.id,
+            "teamName", team.name,
+            "team.name", team.name);
+
+    private final SearchResultCache searchResultCache;
+    private final SearchSingleFlight searchSingleFlight;
+    private final SearchShapeMetrics searchShapeMetrics;
+    // member.sharding.enabled=true 일 때만 존재
+    private final ObjectProvider<ShardedMemberRepository> shardedMemberRepository;
+
+    // 이 offset 이상이면 지연 조인 페이징 사용
+    @Value("${member.search.deferred-join-offset:1000}")
+    private long deferredJoinOffset;
+
+    public MemberRepositoryImpl(SearchResultCache searchResultCache,
+                                SearchSingleFlight searchSingleFlight,
+                                SearchShapeMetrics searchShapeMetrics,
+                                ObjectProvider<ShardedMemberRepository> shardedMemberRepository) {
+        super(Member.class);
+        this.searchResultCache = searchResultCache;
+        this.searchSingleFlight = searchSingleFlight;
+        this.searchShapeMetrics = searchShapeMetrics;
+        this.shardedMemberRepository = shardedMemberRepository;
+    }
 
     @Override
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
-        return queryFactory
-                .select(new QMemberTeamDto(
+        return QueryEvents.call(REPOSITORY, "search", condition,
+                () -> searchSingleFlight.execute("search", condition, null,
+                        () -> searchResultCache.get("search", condition, null,
+                                () -> searchQuery(condition))));
+    }
+
+    private List<MemberTeamDto> searchQuery(MemberSearchCondition condition) {
+        ShardedMemberRepository sharded = shardedMemberRepository.getIfAvailable();
+        if (sharded != null) {
+            return sharded.search(condition);
+        }
+
+        long start = System.nanoTime();
+        List<MemberTeamDto> content = QueryEvents.content(() -> select(new QMemberTeamDto(
                         member.id.as("memberId")
                         , member.username
                         , member.age
@@ -40,13 +105,22 @@ public class MemberRepositoryImpl implements MemberCustomRepository {
                         , teamNameEq(condition.getTeamName())
                         , ageGoe(condition.getAgeGoe())
                         , ageLoe(condition.getAgeLoe()))
-                .fetch();
+                .fetch());
+
+        searchShapeMetrics.record(condition, start, content.size());
+        return content;
     }
 
     @Override
     public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
-        QueryResults<MemberTeamDto> results = queryFactory
-                .select(new QMemberTeamDto(
+        return QueryEvents.call(REPOSITORY, "searchPageSimple", condition,
+                () -> searchSingleFlight.execute("searchPageSimple", condition, pageable,
+                        () -> searchPageSimpleQuery(condition, pageable)));
+    }
+
+    private Page<MemberTeamDto> searchPageSimpleQuery(MemberSearchCondition condition, Pageable pageable) {
+        long start = System.nanoTime();
+        QueryResults<MemberTeamDto> results = select(new QMemberTeamDto(
                         member.id.as("memberId")
                         , member.username
                         , member.age
@@ -66,13 +140,32 @@ public class MemberRepositoryImpl implements MemberCustomRepository {
         List<MemberTeamDto> content = results.getResults();
         long total = results.getTotal();
 
+        searchShapeMetrics.recordPage(condition, start, content.size());
         return new PageImpl<>(content, pageable, total);
     }
 
     @Override
     public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
-        List<MemberTeamDto> content = queryFactory
-                .select(new QMemberTeamDto(
+        return QueryEvents.call(REPOSITORY, "searchPageComplex", condition,
+                () -> searchSingleFlight.execute("searchPageComplex", condition, pageable,
+                        () -> searchResultCache.get("searchPageComplex", condition, pageable,
+                                () -> searchPageComplexQuery(condition, pageable))));
+    }
+
+    private Page<MemberTeamDto> searchPageComplexQuery(MemberSearchCondition condition, Pageable pageable) {
+        ShardedMemberRepository sharded = shardedMemberRepository.getIfAvailable();
+        if (sharded != null) {
+            return sharded.searchPage(condition, pageable);
+        }
+
+        long start = System.nanoTime();
+        if (pageable.getOffset() >= deferredJoinOffset) {
+            Page<MemberTeamDto> page = searchPageDeferredJoin(condition, pageable);
+            searchShapeMetrics.recordPage(condition, start, page.getNumberOfElements());
+            return page;
+        }
+
+        List<MemberTeamDto> content = QueryEvents.content(() -> select(new QMemberTeamDto(
                         member.id.as("memberId")
                         , member.username
                         , member.age
@@ -85,12 +178,12 @@ public class MemberRepositoryImpl implements MemberCustomRepository {
                         , teamNameEq(condition.getTeamName())
                         , ageGoe(condition.getAgeGoe())
                         , ageLoe(condition.getAgeLoe()))
+                .orderBy(orderBy(pageable.getSort()))
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
-                .fetch();
+                .fetch());
 
-        JPAQuery<Long> countQuery = queryFactory
-                .select(member.count())
+        JPAQuery<Long> countQuery = select(member.count())
                 .from(member)
                 .leftJoin(member.team, team)
                 .where(usernameEq(condition.getUsername())
@@ -99,8 +192,182 @@ public class MemberRepositoryImpl implements MemberCustomRepository {
                         , ageLoe(condition.getAgeLoe()));
 
         // Spring Data JPA는 count query 최적화를 위한 유틸 제공
-        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+        Page<MemberTeamDto> page = PageableExecutionUtils.getPage(content, pageable, QueryEvents.count(countQuery::fetchOne));
 //        return new PageImpl<>(content, pageable, total);
+
+        searchShapeMetrics.recordPage(condition, start, content.size());
+        return page;
+    }
+
+    /**
+     * 깊은 offset 용 지연 조인 페이징
+     * id 만 먼저 페이징하고(팀 조건/정렬이 없으면 team 조인 없음), 해당 id 의 행만 team 과 조인
+     * id 쿼리도 일반 페이징과 같은 orderBy 를 써서 offset 경계 전후의 순서가 같다
+     */
+    private Page<MemberTeamDto> searchPageDeferredJoin(MemberSearchCondition condition, Pageable pageable) {
+        return applyPagination(pageable, DeferredJoin.<MemberTeamDto>of(
+                factory -> {
+                    JPAQuery<Long> idQuery = factory
+                            .select(member.id)
+                            .from(member);
+                    if (hasText(condition.getTeamName())) {
+                        idQuery.join(member.team, team);
+                    } else if (sortsByTeam(pageable.getSort())) {
+                        // 팀 없는 회원도 포함되도록 (경로 정렬의 암묵적 inner join 방지)
+                        idQuery.leftJoin(member.team, team);
+                    }
+                    return idQuery
+                            .where(usernameEq(condition.getUsername())
+                                    , teamNameEq(condition.getTeamName())
+                                    , ageGoe(condition.getAgeGoe())
+                                    , ageLoe(condition.getAgeLoe()))
+                            .orderBy(orderBy(pageable.getSort()));
+                },
+                (factory, ids) -> factory
+                        .select(new QMemberTeamDto(
+                                member.id.as("memberId")
+                                , member.username
+                                , member.age
+                                , team.id.as("teamId")
+                                , team.name.as("teamName")
+                        ))
+                        .from(member)
+                        .leftJoin(member.team, team)
+                        .where(member.id.in(ids)),
+                MemberTeamDto::getMemberId));
+    }
+
+    @Override
+    public Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable) {
+        return QueryEvents.call(REPOSITORY, "searchSlice", condition,
+                () -> searchSingleFlight.execute("searchSlice", condition, pageable,
+                        () -> searchResultCache.get("searchSlice", condition, pageable,
+                                () -> searchSliceQuery(condition, pageable))));
+    }
+
+    private Slice<MemberTeamDto> searchSliceQuery(MemberSearchCondition condition, Pageable pageable) {
+        ShardedMemberRepository sharded = shardedMemberRepository.getIfAvailable();
+        if (sharded != null) {
+            return sharded.searchSlice(condition, pageable);
+        }
+
+        long start = System.nanoTime();
+        Slice<MemberTeamDto> slice = applySlice(pageable, query -> query
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId")
+                        , member.username
+                        , member.age
+                        , team.id.as("teamId")
+                        , team.name.as("teamName")
+                ))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(usernameEq(condition.getUsername())
+                        , teamNameEq(condition.getTeamName())
+                        , ageGoe(condition.getAgeGoe())
+                        , ageLoe(condition.getAgeLoe()))
+                .orderBy(orderBy(pageable.getSort())));
+
+        searchShapeMetrics.recordPage(condition, start, slice.getNumberOfElements());
+        return slice;
+    }
+
+    @Override
+    public List<Map<String, Object>> searchFields(MemberSearchCondition condition, Set<MemberField> fields) {
+        return QueryEvents.call(REPOSITORY, "searchFields", condition, () -> searchFieldsContent(condition, fields));
+    }
+
+    private List<Map<String, Object>> searchFieldsContent(MemberSearchCondition condition, Set<MemberField> fields) {
+        long start = System.nanoTime();
+        List<Tuple> content = QueryEvents.content(searchFieldsQuery(condition, fields, Sort.unsorted())::fetch);
+
+        searchShapeMetrics.record(condition, start, content.size());
+        return toMaps(content, fields);
+    }
+
+    @Override
+    public Page<Map<String, Object>> searchPageFields(MemberSearchCondition condition, Pageable pageable, Set<MemberField> fields) {
+        return QueryEvents.call(REPOSITORY, "searchPageFields", condition,
+                () -> searchPageFieldsContent(condition, pageable, fields));
+    }
+
+    private Page<Map<String, Object>> searchPageFieldsContent(MemberSearchCondition condition, Pageable pageable, Set<MemberField> fields) {
+        long start = System.nanoTime();
+        List<Tuple> content = QueryEvents.content(searchFieldsQuery(condition, fields, pageable.getSort())
+                .orderBy(orderBy(pageable.getSort()))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())::fetch);
+
+        JPAQuery<Long> countQuery = select(member.count())
+                .from(member);
+        if (hasText(condition.getTeamName())) {
+            countQuery.join(member.team, team);
+        }
+        countQuery.where(usernameEq(condition.getUsername())
+                , teamNameEq(condition.getTeamName())
+                , ageGoe(condition.getAgeGoe())
+                , ageLoe(condition.getAgeLoe()));
+
+        Page<Map<String, Object>> page = PageableExecutionUtils.getPage(toMaps(content, fields), pageable, QueryEvents.count(countQuery::fetchOne));
+
+        searchShapeMetrics.recordPage(condition, start, content.size());
+        return page;
+    }
+
+    /**
+     * 요청 필드만 select, 팀 이름을 조회하거나 팀 이름으로 거르거나 팀으로 정렬할 때만 team 조인
+     */
+    private JPAQuery<Tuple> searchFieldsQuery(MemberSearchCondition condition, Set<MemberField> fields, Sort sort) {
+        Expression<?>[] projection = fields.stream()
+                .map(MemberField::getExpression)
+                .toArray(Expression[]::new);
+
+        JPAQuery<Tuple> query = getQueryFactory()
+                .select(projection)
+                .from(member);
+        if (hasText(condition.getTeamName()) || fields.stream().anyMatch(MemberField::isTeamJoin) || sortsByTeam(sort)) {
+            query.leftJoin(member.team, team);
+        }
+        return query
+                .where(usernameEq(condition.getUsername())
+                        , teamNameEq(condition.getTeamName())
+                        , ageGoe(condition.getAgeGoe())
+                        , ageLoe(condition.getAgeLoe()));
+    }
+
+    /**
+     * 요청 정렬 + member.id 오름차순 (동일 값 사이 순서를 고정해 페이지 간 중복/누락 방지)
+     *
+     * @throws IllegalArgumentException 정렬할 수 없는 속성
+     */
+    private static OrderSpecifier<?>[] orderBy(Sort sort) {
+        List<OrderSpecifier<?>> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            ComparableExpressionBase<?> expression = SORT_PROPERTIES.get(order.getProperty());
+            if (expression == null) {
+                throw new IllegalArgumentException("unsupported sort property: " + order.getProperty());
+            }
+            orders.add(order.isAscending() ? expression.asc() : expression.desc());
+        }
+        orders.add(member.id.asc());
+        return orders.toArray(new OrderSpecifier[0]);
+    }
+
+    private static boolean sortsByTeam(Sort sort) {
+        return sort.stream().anyMatch(order -> order.getProperty().startsWith("team"));
+    }
+
+    private List<Map<String, Object>> toMaps(List<Tuple> tuples, Set<MemberField> fields) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            int index = 0;
+            for (MemberField field : fields) {
+                row.put(field.getName(), tuple.get(index++, Object.class));
+            }
+            rows.add(row);
+        }
+        return rows;
     }
 
     private BooleanExpression ageLoe(Integer ageLoe) {
@@ -0,0 +1,99 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.SQLExpressions;
+import com.querydsl.sql.SQLQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import study.querydsl.dto.MemberAgeRank;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.sql.SMember;
+import study.querydsl.sql.STeam;
+
+import java.util.List;
+import java.util.Optional;
+
+import static study.querydsl.repository.support.LambdaProjections.constructor;
+
+/**
+ * querydsl-sql 기반 윈도우 함수 조회
+ * 상관 서브쿼리(MemberTestRepository.*_Subquery)처럼 행마다 member 테이블을 다시 읽지 않고 한 번의 스캔으로 순위를 계산한다
+ */
+@Repository
+@RequiredArgsConstructor
+public class MemberSqlRepository {
+
+    private static final SMember m = new SMember("m");
+    private static final STeam t = new STeam("t");
+
+    // 인라인 뷰 컬럼
+    private static final PathBuilder<Object> ranked = new PathBuilder<>(Object.class, "ranked");
+    private static final NumberPath<Long> memberId = ranked.getNumber("member_id", Long.class);
+    private static final StringPath username = ranked.getString("username");
+    private static final NumberPath<Integer> age = ranked.getNumber("age", Integer.class);
+    private static final NumberPath<Long> teamId = ranked.getNumber("team_id", Long.class);
+    private static final StringPath teamName = ranked.getString("team_name");
+    private static final NumberPath<Long> rowNumber = ranked.getNumber("rn", Long.class);
+    private static final NumberPath<Long> ageRank = ranked.getNumber("age_rank", Long.class);
+    private static final NumberPath<Long> teamAgeRank = ranked.getNumber("team_age_rank", Long.class);
+    private static final NumberPath<Double> percentile = ranked.getNumber("percentile", Double.class);
+
+    private final SQLQueryFactory sqlQueryFactory;
+
+    /**
+     * 팀별 나이 상위 n 명 (동률은 id 순)
+     * row_number() over (partition by team_id order by age desc, member_id)
+     */
+    public List<MemberTeamDto> findTopNByAgePerTeam(int n) {
+        return sqlQueryFactory
+                .select(constructor(MemberTeamDto.class, memberId, username, age, teamId, teamName))
+                .from(SQLExpressions
+                        .select(m.memberId.as("member_id")
+                                , m.username.as("username")
+                                , m.age.as("age")
+                                , t.teamId.as("team_id")
+                                , t.name.as("team_name")
+                                , SQLExpressions.rowNumber().over()
+                                        .partitionBy(m.teamId)
+                                        .orderBy(m.age.desc(), m.memberId.asc())
+                                        .as("rn"))
+                        .from(m)
+                        .join(t).on(m.teamId.eq(t.teamId)), ranked)
+                .where(rowNumber.loe((long) n))
+                .orderBy(teamId.asc(), rowNumber.asc())
+                .fetch();
+    }
+
+    /**
+     * 전체/팀 내 나이 순위와 백분위
+     * rank() over (order by age desc), rank() over (partition by team_id order by age desc),
+     * percent_rank() over (order by age)
+     * 팀이 없는 회원은 NULL 파티션에 함께 묶이지 않도록 팀 내 순위를 1 로 둔다 (findAgeRank_Subquery 와 동일)
+     */
+    public Optional<MemberAgeRank> findAgeRank(Long id) {
+        return Optional.ofNullable(sqlQueryFactory
+                .select(constructor(MemberAgeRank.class, memberId, username, age, ageRank, teamAgeRank, percentile))
+                .from(SQLExpressions
+                        .select(m.memberId.as("member_id")
+                                , m.username.as("username")
+                                , m.age.as("age")
+                                , SQLExpressions.rank().over()
+                                        .orderBy(m.age.desc())
+                                        .as("age_rank")
+                                , new CaseBuilder()
+                                        .when(m.teamId.isNull()).then(1L)
+                                        .otherwise(SQLExpressions.rank().over()
+                                                .partitionBy(m.teamId)
+                                                .orderBy(m.age.desc()))
+                                        .as("team_age_rank")
+                                , SQLExpressions.percentRank().over()
+                                        .orderBy(m.age.asc())
+                                        .as("percentile"))
+                        .from(m), ranked)
+                .where(memberId.eq(id))
+                .fetchOne());
+    }
+}
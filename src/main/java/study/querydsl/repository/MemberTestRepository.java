@@ -1,14 +1,22 @@
 package study.querydsl.repository;
 
+import com.querydsl.core.Tuple;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPAExpressions;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import study.querydsl.dto.MemberAgeRank;
 import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
 import study.querydsl.entity.Member;
+import study.querydsl.entity.QMember;
+import study.querydsl.repository.support.DeferredJoin;
 import study.querydsl.repository.support.Querydsl4RepositorySupport;
 
 import java.util.List;
+import java.util.Optional;
 
 import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.entity.QMember.member;
@@ -61,6 +69,87 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
         );
     }
 
+    public Page<Member> searchPaginationDeferredJoin(MemberSearchCondition condition, Pageable pageable) {
+        return applyPagination(pageable, DeferredJoin.<Member>of(
+                idQuery -> idQuery
+                        .select(member.id)
+                        .from(member)
+                        .leftJoin(member.team, team)
+                        .where(usernameEq(condition.getUsername()),
+                                teamNameEq(condition.getTeamName()),
+                                ageGoe(condition.getAgeGoe()),
+                                ageLoe(condition.getAgeLoe())
+                        ),
+                (contentQuery, ids) -> contentQuery
+                        .selectFrom(member)
+                        .leftJoin(member.team, team).fetchJoin()
+                        .where(member.id.in(ids)),
+                Member::getId));
+    }
+
+    /**
+     * 팀별 나이 상위 n 명, 상관 서브쿼리 버전 (MemberSqlRepository.findTopNByAgePerTeam 비교, 벤치마크용)
+     * 회원마다 같은 팀의 "자신보다 앞선" 회원 수를 다시 센다
+     */
+    public List<MemberTeamDto> findTopNByAgePerTeam_Subquery(int n) {
+        QMember memberSub = new QMember("memberSub");
+
+        return select(new QMemberTeamDto(
+                        member.id.as("memberId")
+                        , member.username
+                        , member.age
+                        , team.id.as("teamId")
+                        , team.name.as("teamName")
+                ))
+                .from(member)
+                .join(member.team, team)
+                .where(JPAExpressions
+                        .select(memberSub.count())
+                        .from(memberSub)
+                        .where(memberSub.team.eq(member.team)
+                                , memberSub.age.gt(member.age)
+                                        .or(memberSub.age.eq(member.age).and(memberSub.id.lt(member.id))))
+                        .lt((long) n))
+                .orderBy(team.id.asc(), member.age.desc(), member.id.asc())
+                .fetch();
+    }
+
+    /**
+     * 나이 순위/백분위, 상관 서브쿼리 버전 (MemberSqlRepository.findAgeRank 비교, 벤치마크용)
+     */
+    public Optional<MemberAgeRank> findAgeRank_Subquery(Long id) {
+        QMember older = new QMember("older");
+        QMember teamOlder = new QMember("teamOlder");
+        QMember younger = new QMember("younger");
+        QMember total = new QMember("total");
+
+        Tuple tuple = select(member.id
+                        , member.username
+                        , member.age
+                        , JPAExpressions.select(older.count()).from(older)
+                                .where(older.age.gt(member.age))
+                        , JPAExpressions.select(teamOlder.count()).from(teamOlder)
+                                .where(teamOlder.team.eq(member.team), teamOlder.age.gt(member.age))
+                        , JPAExpressions.select(younger.count()).from(younger)
+                                .where(younger.age.lt(member.age))
+                        , JPAExpressions.select(total.count()).from(total))
+                .from(member)
+                .where(member.id.eq(id))
+                .fetchOne();
+        if (tuple == null) {
+            return Optional.empty();
+        }
+
+        long memberCount = tuple.get(6, Long.class);
+        long youngerCount = tuple.get(5, Long.class);
+        return Optional.of(new MemberAgeRank(
+                tuple.get(member.id)
+                , tuple.get(member.username)
+                , tuple.get(member.age)
+                , tuple.get(3, Long.class) + 1
+                , tuple.get(4, Long.class) + 1
+                , memberCount > 1 ? youngerCount / (double) (memberCount - 1) : 0));
+    }
 
     private BooleanExpression ageLoe(Integer ageLoe) {
         return ageLoe != null ? member.age.loe(ageLoe) : null;
@@ -0,0 +1,252 @@
+package study.querydsl.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 회원 저장 write-behind 버퍼 (member.write-behind.enabled=true)
+ * 저장 요청을 제한된 lock-free 큐에 넣고, 백그라운드 flusher 가 건수(batch-size) 또는 시간(window) 단위로 모아
+ * 한 트랜잭션에 저장한다. 반환된 future 는 해당 배치가 커밋된 뒤에 완료된다
+ * 배치 커밋이 실패하면 건별 트랜잭션으로 다시 저장해 실패한 회원의 future 만 예외로 완료한다
+ *
+ * 큐가 가득 차면 호출 스레드는 offer-timeout 동안 대기하고, 그래도 자리가 없으면 RejectedExecutionException
+ * 비활성화 시에는 save() 와 같이 호출자의 트랜잭션에서 persist 하고 완료된 future 를 반환한다
+ */
+@Slf4j
+@Component
+public class MemberWriteBehind implements DisposableBean {
+
+    private static final long BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final long windowNanos;
+    private final long offerTimeoutNanos;
+
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+    // ConcurrentLinkedQueue.size() 는 O(n) 이므로 크기는 따로 관리
+    private final AtomicInteger size = new AtomicInteger();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    private final DistributionSummary batchSizes;
+    private final Timer flushLatency;
+    private final Counter rejected;
+    private final Counter failed;
+
+    public MemberWriteBehind(EntityManager em,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${member.write-behind.enabled:false}") boolean enabled,
+                             @Value("${member.write-behind.capacity:10000}") int capacity,
+                             @Value("${member.write-behind.batch-size:500}") int batchSize,
+                             @Value("${member.write-behind.window:50ms}") Duration window,
+                             @Value("${member.write-behind.offer-timeout:1s}") Duration offerTimeout) {
+        this.em = em;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.windowNanos = window.toNanos();
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+
+        this.batchSizes = DistributionSummary.builder("member.write-behind.batch.size")
+                .description("members persisted per write-behind transaction")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("member.write-behind.flush")
+                .description("write-behind batch persist and commit time")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("member.write-behind.rejected")
+                .description("saves rejected because the queue stayed full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("member.write-behind.failed")
+                .description("saves that failed to commit")
+                .register(meterRegistry);
+        Gauge.builder("member.write-behind.queue.size", size, AtomicInteger::get)
+                .description("saves waiting to be flushed")
+                .register(meterRegistry);
+
+        if (enabled) {
+            this.flusher = new Thread(this::flushLoop, "member-write-behind");
+            this.flusher.setDaemon(true);
+            this.flusher.start();
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * 저장 요청. future 는 커밋 후 id 가 채워진 회원으로 완료된다
+     */
+    public CompletableFuture<Member> save(Member member) {
+        if (!enabled) {
+            em.persist(member);
+            return CompletableFuture.completedFuture(member);
+        }
+        if (!running) {
+            throw new RejectedExecutionException("write-behind buffer is shut down");
+        }
+
+        reserve();
+        Pending pending = new Pending(member);
+        queue.offer(pending);
+        // destroy() 와 경합: 종료 후 들어간 요청은 flusher 도 drain 도 보지 못하므로 직접 회수한다
+        // remove 에 실패했다면 flusher 나 destroy() 가 이미 가져가 future 를 완료한다
+        if (!running && queue.remove(pending)) {
+            size.decrementAndGet();
+            throw new RejectedExecutionException("write-behind buffer is shut down");
+        }
+        if (size.get() >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+        return pending.future;
+    }
+
+    public int queued() {
+        return size.get();
+    }
+
+    /**
+     * 큐 자리 확보 (backpressure)
+     */
+    private void reserve() {
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        while (true) {
+            int current = size.get();
+            if (current < capacity) {
+                if (size.compareAndSet(current, current + 1)) {
+                    return;
+                }
+                continue;
+            }
+            LockSupport.unpark(flusher);
+            if (System.nanoTime() - deadline >= 0) {
+                rejected.increment();
+                throw new RejectedExecutionException("write-behind queue is full (capacity " + capacity + ")");
+            }
+            LockSupport.parkNanos(BACKOFF_NANOS);
+        }
+    }
+
+    private void flushLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        long windowStart = System.nanoTime();
+        while (running || size.get() > 0) {
+            long waited = System.nanoTime() - windowStart;
+            if (size.get() < batchSize && waited < windowNanos && running) {
+                LockSupport.parkNanos(this, windowNanos - waited);
+                continue;
+            }
+
+            Pending pending;
+            while (batch.size() < batchSize && (pending = queue.poll()) != null) {
+                batch.add(pending);
+            }
+            size.addAndGet(-batch.size());
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+            windowStart = System.nanoTime();
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Pending pending : batch) {
+                    em.persist(pending.member);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("write-behind batch of {} members failed, retrying one by one", batch.size(), e);
+            batch.forEach(this::flushOne);
+            return;
+        }
+
+        flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSizes.record(batch.size());
+        batch.forEach(pending -> pending.future.complete(pending.member));
+    }
+
+    private void flushOne(Pending pending) {
+        // 롤백된 배치에서 채번된 id 는 버리고 다시 채번 (id 가 남아 있으면 detached 로 보고 persist 가 거부한다)
+        pending.member.setId(null);
+        try {
+            transactionTemplate.executeWithoutResult(status -> em.persist(pending.member));
+        } catch (RuntimeException e) {
+            pending.member.setId(null);
+            failed.increment();
+            pending.future.completeExceptionally(e);
+            return;
+        }
+        batchSizes.record(1);
+        pending.future.complete(pending.member);
+    }
+
+    /**
+     * 종료 시 남은 요청을 모두 저장한 뒤 멈춘다
+     * flusher 가 제한 시간 안에 끝나지 않았거나 그 뒤에 들어온 요청은 예외로 완료해 future 가 남지 않게 한다
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (flusher == null) {
+            return;
+        }
+        LockSupport.unpark(flusher);
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+
+        RejectedExecutionException shutdown = new RejectedExecutionException("write-behind buffer is shut down");
+        int dropped = 0;
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            size.decrementAndGet();
+            pending.future.completeExceptionally(shutdown);
+            dropped++;
+        }
+        if (dropped > 0) {
+            log.warn("write-behind shut down with {} unsaved members", dropped);
+            failed.increment(dropped);
+        }
+    }
+
+    private static class Pending {
+        private final Member member;
+        private final CompletableFuture<Member> future = new CompletableFuture<>();
+
+        Pending(Member member) {
+            this.member = member;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package study.querydsl.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+public interface TeamRepository extends JpaRepository<Team, Long> {
+
+    // Team.members 컬렉션 대신 페이징으로 팀 소속 회원 조회
+    @Query(value = "select m from Member m where m.team.id = :teamId",
+            countQuery = "select count(m) from Member m where m.team.id = :teamId")
+    Page<Member> findMembers(@Param("teamId") Long teamId, Pageable pageable);
+
+}
@@ -0,0 +1,91 @@
+package study.querydsl.repository.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.repository.support.SearchKey;
+import study.querydsl.repository.support.SearchResults;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * MemberTeamDto 검색 결과 캐시
+ * 크기/TTL 로 제한하고, 조회에 쓰인 테이블(member, team)이 캐시 이후 변경되었으면 버린다
+ *
+ * MemberTeamDto 는 가변(@Data)이므로 저장할 때와 돌려줄 때 모두 복사한다 (SearchResults.copy)
+ * 호출자가 결과를 정렬/수정해도 캐시된 값과 다른 호출자에게 영향이 없다 (List 는 수정 불가)
+ */
+@Component
+public class SearchResultCache {
+
+    private static final Set<String> SEARCH_TABLES = Set.of("member", "team");
+
+    private final TableUpdateTimestamps timestamps;
+    private final EntityManager em;
+    private final Cache<SearchKey, Entry> cache;
+    private final boolean enabled;
+
+    public SearchResultCache(TableUpdateTimestamps timestamps,
+                             EntityManager em,
+                             @Value("${member.search-cache.enabled:false}") boolean enabled,
+                             @Value("${member.search-cache.maximum-size:10000}") long maximumSize,
+                             @Value("${member.search-cache.ttl:30s}") Duration ttl) {
+        this.timestamps = timestamps;
+        this.em = em;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String method, MemberSearchCondition condition, Pageable pageable, Supplier<T> loader) {
+        if (!enabled || hasPendingChanges()) {
+            return loader.get();
+        }
+
+        SearchKey key = SearchKey.of(method, condition, pageable);
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && timestamps.isUpToDate(SEARCH_TABLES, entry.timestamp)) {
+            return (T) SearchResults.copy(entry.value);
+        }
+
+        // 쿼리 실행 전 시각 기준, 실행 중 변경이 생기면 다음 조회에서 무효화된다
+        long timestamp = timestamps.next();
+        T value = loader.get();
+        cache.put(key, new Entry(timestamp, SearchResults.copy(value)));
+        return (T) SearchResults.copy(value);
+    }
+
+    /**
+     * 현재 트랜잭션에 flush 되지 않은 변경이 있으면 캐시를 쓰지 않는다
+     * (쿼리 실행 시 auto flush 로 반영될 변경을 캐시가 가리지 않도록)
+     */
+    private boolean hasPendingChanges() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && em.unwrap(Session.class).isDirty();
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    private static class Entry {
+        private final long timestamp;
+        private final Object value;
+
+        Entry(long timestamp, Object value) {
+            this.timestamp = timestamp;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package study.querydsl.repository.cache;
+
+import com.p6spy.engine.common.ConnectionInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 테이블별 마지막 변경 시각 (Hibernate UpdateTimestampsCache 와 같은 방식)
+ * p6spy 로 실행되는 모든 INSERT/UPDATE/DELETE 를 감지하므로 JPQL 벌크 연산, JDBC batch 도 포함된다
+ *
+ * 실행 전/후, 그리고 해당 커넥션의 commit/rollback 시점에 다시 갱신해
+ * 커밋 전에 읽혀 캐시된 결과도 커밋 시점에 무효화된다
+ */
+@Component
+public class TableUpdateTimestamps extends SimpleJdbcEventListener {
+
+    private static final Pattern WRITE_STATEMENT = Pattern.compile(
+            "^\\s*(?:/\\*.*?\\*/\\s*)*(?:insert\\s+into|update|delete\\s+from|delete|merge\\s+into)\\s+[\"`]?([\\w.]+)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final ConcurrentMap<String, Long> lastUpdates = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Set<String>> pendingByConnection = new ConcurrentHashMap<>();
+
+    /**
+     * 캐시 항목 생성 시각, 쿼리 실행 전에 발급한다
+     */
+    public long next() {
+        return System.nanoTime();
+    }
+
+    public boolean isUpToDate(Set<String> tables, long timestamp) {
+        for (String table : tables) {
+            Long lastUpdate = lastUpdates.get(table);
+            if (lastUpdate != null && lastUpdate - timestamp >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void invalidate(String table) {
+        lastUpdates.put(table, System.nanoTime());
+    }
+
+    @Override
+    public void onBeforeAnyExecute(StatementInformation statementInformation) {
+        String table = writtenTable(statementInformation.getSql());
+        if (table == null) {
+            return;
+        }
+        invalidate(table);
+        pendingByConnection
+                .computeIfAbsent(statementInformation.getConnectionInformation().getConnectionId(),
+                        id -> ConcurrentHashMap.newKeySet())
+                .add(table);
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        String table = writtenTable(statementInformation.getSql());
+        if (table != null) {
+            invalidate(table);
+        }
+    }
+
+    @Override
+    public void onAfterCommit(ConnectionInformation connectionInformation, long timeElapsedNanos, SQLException e) {
+        completeTransaction(connectionInformation);
+    }
+
+    @Override
+    public void onAfterRollback(ConnectionInformation connectionInformation, long timeElapsedNanos, SQLException e) {
+        completeTransaction(connectionInformation);
+    }
+
+    @Override
+    public void onAfterConnectionClose(ConnectionInformation connectionInformation, SQLException e) {
+        completeTransaction(connectionInformation);
+    }
+
+    private void completeTransaction(ConnectionInformation connectionInformation) {
+        Set<String> tables = pendingByConnection.remove(connectionInformation.getConnectionId());
+        if (tables != null) {
+            tables.forEach(this::invalidate);
+        }
+    }
+
+    static String writtenTable(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        Matcher matcher = WRITE_STATEMENT.matcher(sql);
+        if (!matcher.find()) {
+            return null;
+        }
+        String table = matcher.group(1).toLowerCase(Locale.ROOT);
+        int schemaEnd = table.lastIndexOf('.');
+        return schemaEnd >= 0 ? table.substring(schemaEnd + 1) : table;
+    }
+}
@@ -0,0 +1,95 @@
+package study.querydsl.repository.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 회원 샤드 (member.sharding.enabled=true)
+ * member 는 team_id 기준으로 N 개 DB 에 분산, team 은 작은 참조 테이블이라 모든 샤드에 복제
+ * 팀이 없는 회원은 0번 샤드, id 는 기본 DB 시퀀스 값을 그대로 쓰므로 샤드에는 시퀀스가 없다
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty("member.sharding.enabled")
+public class MemberShards implements DisposableBean {
+
+    private static final String[] SCHEMA = {
+            "create table if not exists team (team_id bigint primary key, name varchar(255))",
+            "create table if not exists member (member_id bigint primary key, username varchar(255), age integer not null, team_id bigint)",
+            "create index if not exists member_team_idx on member (team_id)",
+            "create index if not exists team_name_idx on team (name)"
+    };
+
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+    private final List<JdbcTemplate> jdbcTemplates = new ArrayList<>();
+    private final ExecutorService executor;
+
+    public MemberShards(@Value("${member.sharding.urls}") List<String> urls,
+                        @Value("${member.sharding.username:sa}") String username,
+                        @Value("${member.sharding.password:}") String password) {
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("member.sharding.urls must not be empty");
+        }
+        for (String url : urls) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(url)
+                    .username(username)
+                    .password(password)
+                    .build();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            for (String ddl : SCHEMA) {
+                jdbcTemplate.execute(ddl);
+            }
+            dataSources.add(dataSource);
+            jdbcTemplates.add(jdbcTemplate);
+        }
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(urls.size(), runnable -> {
+            Thread thread = new Thread(runnable, "member-shard-" + threads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("member sharding enabled, shards = {}", urls.size());
+    }
+
+    public int size() {
+        return jdbcTemplates.size();
+    }
+
+    public JdbcTemplate shard(int index) {
+        return jdbcTemplates.get(index);
+    }
+
+    public List<JdbcTemplate> all() {
+        return Collections.unmodifiableList(jdbcTemplates);
+    }
+
+    public int shardOf(Long teamId) {
+        return teamId == null ? 0 : (int) Math.floorMod(teamId, (long) size());
+    }
+
+    public ExecutorService executor() {
+        return executor;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        dataSources.forEach(HikariDataSource::close);
+    }
+}
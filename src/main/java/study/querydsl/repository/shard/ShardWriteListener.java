@@ -0,0 +1,132 @@
+package study.querydsl.repository.shard;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+
+/**
+ * JPA 로 저장/수정/삭제한 member, team 을 기본 DB 커밋 후 소유 샤드에 반영 (member.sharding.enabled=true)
+ * 기본 DB 는 id 발급과 영속성 컨텍스트의 기준으로 남고, 검색(search/searchPageComplex/searchSlice)은 샤드에서 읽는다
+ * 롤백된 트랜잭션의 변경은 샤드에 쓰지 않는다. JPQL 벌크 연산은 엔티티 이벤트가 없어 반영되지 않는다
+ * 아무도 주입받지 않으므로 lazy-initialization(faststart) 에서도 생성되도록 @Lazy(false)
+ */
+@Slf4j
+@Lazy(false)
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty("member.sharding.enabled")
+public class ShardWriteListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final transient EntityManagerFactory emf;
+    private final transient ShardedMemberRepository shardedMemberRepository;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Member) {
+            Member member = (Member) entity;
+            write("insert", member.getId(), () -> shardedMemberRepository.insertMembers(Collections.singletonList(
+                    new Object[]{member.getId(), member.getUsername(), member.getAge(), teamId(member.getTeam())})));
+        } else if (entity instanceof Team) {
+            Team team = (Team) entity;
+            write("insert", team.getId(), () -> shardedMemberRepository.saveTeam(team.getId(), team.getName()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Member) {
+            Member member = (Member) entity;
+            write("update", member.getId(), () -> shardedMemberRepository.updateMember(
+                    member.getId(), member.getUsername(), member.getAge(), teamId(member.getTeam())));
+        } else if (entity instanceof Team) {
+            Team team = (Team) entity;
+            write("update", team.getId(), () -> shardedMemberRepository.saveTeam(team.getId(), team.getName()));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Member) {
+            Long memberId = (Long) event.getId();
+            write("delete", memberId, () -> shardedMemberRepository.deleteMember(memberId));
+        } else if (entity instanceof Team) {
+            Long teamId = (Long) event.getId();
+            write("delete", teamId, () -> shardedMemberRepository.deleteTeam(teamId));
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // 기본 DB 에 반영되지 않았으므로 샤드에도 쓰지 않는다
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    // Hibernate 5.x 의 추상 메서드 이름 (requiresPostCommitHandling 이 이 메서드를 호출한다)
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        Class<?> mappedClass = persister.getMappedClass();
+        return mappedClass == Member.class || mappedClass == Team.class;
+    }
+
+    /**
+     * 기본 DB 는 이미 커밋되었으므로 예외를 호출자에게 올리지 않고 기록만 한다
+     */
+    private void write(String operation, Object id, Runnable write) {
+        try {
+            write.run();
+        } catch (RuntimeException e) {
+            log.error("shard {} failed for id {}", operation, id, e);
+        }
+    }
+
+    private static Long teamId(Team team) {
+        if (team == null) {
+            return null;
+        }
+        // 초기화하지 않은 프록시에서 id 만 꺼낸다 (커밋 후라 로딩할 수 없다)
+        if (team instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) team).getHibernateLazyInitializer().getIdentifier();
+        }
+        return team.getId();
+    }
+}
@@ -0,0 +1,379 @@
+package study.querydsl.repository.shard;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.monitoring.SearchShapeMetrics;
+import study.querydsl.repository.cache.TableUpdateTimestamps;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 샤드 분산 회원 저장/검색 (scatter-gather)
+ * 팀 조건이 있으면 해당 팀의 샤드로만, 없으면 모든 샤드에 병렬로 조회한 뒤 정렬 순서대로 병합
+ * 페이지 조회는 샤드마다 offset + size 건을 받아 병합 후 잘라내고, 전체 건수는 샤드별 count 의 합
+ *
+ * 저장은 JPA 저장 경로(ShardWriteListener)와 대량 등록(MemberBulkRepository)이 커밋 후 호출한다
+ * id 는 기본 DB 의 시퀀스로 발급된 값을 그대로 쓴다
+ * 샤드에 쓴 뒤 검색 결과 캐시가 샤드 반영 전 결과를 들고 있지 않도록 테이블 변경 시각을 다시 갱신한다
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty("member.sharding.enabled")
+public class ShardedMemberRepository {
+
+    private static final RowMapper<MemberTeamDto> ROW_MAPPER = (rs, rowNum) -> new MemberTeamDto(
+            rs.getLong(1),
+            rs.getString(2),
+            rs.getInt(3),
+            rs.getObject(4, Long.class),
+            rs.getString(5));
+
+    private static final String INSERT_MEMBER_SQL = "insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)";
+    private static final String MERGE_MEMBER_SQL = "merge into member (member_id, username, age, team_id) key (member_id) values (?, ?, ?, ?)";
+
+    // 정렬 가능한 속성 → 컬럼, DTO 값 (MemberRepositoryImpl 과 같은 속성명)
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "memberId", "m.member_id",
+            "id", "m.member_id",
+            "username", "m.username",
+            "age", "m.age",
+            "teamId", "t.team_id",
+            "team.id", "t.team_id",
+            "teamName", "t.name",
+            "team.name", "t.name");
+
+    private static final Map<String, Function<MemberTeamDto, Comparable>> SORT_KEYS = Map.of(
+            "memberId", MemberTeamDto::getMemberId,
+            "id", MemberTeamDto::getMemberId,
+            "username", MemberTeamDto::getUsername,
+            "age", MemberTeamDto::getAge,
+            "teamId", MemberTeamDto::getTeamId,
+            "team.id", MemberTeamDto::getTeamId,
+            "teamName", MemberTeamDto::getTeamName,
+            "team.name", MemberTeamDto::getTeamName);
+
+    private final MemberShards shards;
+    private final SearchShapeMetrics searchShapeMetrics;
+    private final TableUpdateTimestamps tableUpdateTimestamps;
+
+    /**
+     * team 은 모든 샤드에 복제
+     */
+    public void saveTeam(Long teamId, String name) {
+        for (JdbcTemplate shard : shards.all()) {
+            shard.update("merge into team (team_id, name) key (team_id) values (?, ?)", teamId, name);
+        }
+        tableUpdateTimestamps.invalidate("team");
+    }
+
+    public void deleteTeam(Long teamId) {
+        for (JdbcTemplate shard : shards.all()) {
+            shard.update("delete from team where team_id = ?", teamId);
+        }
+        tableUpdateTimestamps.invalidate("team");
+    }
+
+    /**
+     * 신규 회원을 소유 샤드별로 모아 batch insert
+     *
+     * @param rows member_id, username, age, team_id
+     */
+    public void insertMembers(List<Object[]> rows) {
+        Map<Integer, List<Object[]>> byShard = rows.stream()
+                .collect(groupingBy(row -> shards.shardOf((Long) row[3])));
+        byShard.forEach((index, shardRows) -> shards.shard(index).batchUpdate(INSERT_MEMBER_SQL, shardRows));
+        tableUpdateTimestamps.invalidate("member");
+    }
+
+    /**
+     * 수정된 회원을 소유 샤드에 반영, 팀이 바뀌어 소유 샤드가 달라졌으면 다른 샤드의 행은 지운다
+     */
+    public void updateMember(Long memberId, String username, int age, Long teamId) {
+        int owner = shards.shardOf(teamId);
+        for (int index = 0; index < shards.size(); index++) {
+            if (index == owner) {
+                shards.shard(index).update(MERGE_MEMBER_SQL, memberId, username, age, teamId);
+            } else {
+                shards.shard(index).update("delete from member where member_id = ?", memberId);
+            }
+        }
+        tableUpdateTimestamps.invalidate("member");
+    }
+
+    public void deleteMember(Long memberId) {
+        for (JdbcTemplate shard : shards.all()) {
+            shard.update("delete from member where member_id = ?", memberId);
+        }
+        tableUpdateTimestamps.invalidate("member");
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        long start = System.nanoTime();
+        Set<Integer> targets = targetShards(condition);
+        if (targets.isEmpty()) {
+            searchShapeMetrics.record(condition, start, 0);
+            return Collections.emptyList();
+        }
+
+        Where where = Where.of(condition);
+        String sql = "select m.member_id, m.username, m.age, t.team_id, t.name"
+                + " from member m left join team t on m.team_id = t.team_id"
+                + where.sql + " order by m.member_id";
+        List<List<MemberTeamDto>> results = scatter(targets,
+                shard -> shard.query(sql, ROW_MAPPER, where.args.toArray()));
+        List<MemberTeamDto> content = merge(results, comparator(Sort.unsorted()), 0, Integer.MAX_VALUE);
+        searchShapeMetrics.record(condition, start, content.size());
+        return content;
+    }
+
+    /**
+     * @throws IllegalArgumentException 정렬할 수 없는 속성 (샤드 조회 전에 검사)
+     */
+    public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        long start = System.nanoTime();
+        String orderBy = orderBy(pageable.getSort());
+        Set<Integer> targets = targetShards(condition);
+        if (targets.isEmpty()) {
+            searchShapeMetrics.recordPage(condition, start, 0);
+            return new PageImpl<>(Collections.emptyList(), pageable, 0);
+        }
+
+        Where where = Where.of(condition);
+        long offset = pageable.getOffset();
+        int size = pageable.getPageSize();
+
+        // 샤드별로 offset + size 건까지만 가져오면 병합 후 해당 페이지를 만들 수 있다
+        List<Object> args = new ArrayList<>(where.args);
+        args.add(offset + size);
+        String sql = "select m.member_id, m.username, m.age, t.team_id, t.name"
+                + " from member m left join team t on m.team_id = t.team_id"
+                + where.sql + orderBy + " limit ?";
+        String countSql = "select count(*) from member m left join team t on m.team_id = t.team_id" + where.sql;
+
+        List<CompletableFuture<List<MemberTeamDto>>> contents = new ArrayList<>();
+        List<CompletableFuture<Long>> counts = new ArrayList<>();
+        for (int index : targets) {
+            JdbcTemplate shard = shards.shard(index);
+            contents.add(CompletableFuture.supplyAsync(
+                    () -> shard.query(sql, ROW_MAPPER, args.toArray()), shards.executor()));
+            counts.add(CompletableFuture.supplyAsync(
+                    () -> shard.queryForObject(countSql, Long.class, where.args.toArray()), shards.executor()));
+        }
+
+        List<MemberTeamDto> content = merge(join(contents), comparator(pageable.getSort()), offset, size);
+        long total = join(counts).stream().mapToLong(Long::longValue).sum();
+        searchShapeMetrics.recordPage(condition, start, content.size());
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * count 없이 한 건 더 읽어 다음 페이지 유무 판단
+     *
+     * @throws IllegalArgumentException 정렬할 수 없는 속성 (샤드 조회 전에 검사)
+     */
+    public Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable) {
+        long start = System.nanoTime();
+        String orderBy = orderBy(pageable.getSort());
+        Set<Integer> targets = targetShards(condition);
+        if (targets.isEmpty()) {
+            searchShapeMetrics.recordPage(condition, start, 0);
+            return new SliceImpl<>(Collections.emptyList(), pageable, false);
+        }
+
+        Where where = Where.of(condition);
+        long offset = pageable.getOffset();
+        int size = pageable.getPageSize();
+
+        List<Object> args = new ArrayList<>(where.args);
+        args.add(offset + size + 1);
+        String sql = "select m.member_id, m.username, m.age, t.team_id, t.name"
+                + " from member m left join team t on m.team_id = t.team_id"
+                + where.sql + orderBy + " limit ?";
+        List<List<MemberTeamDto>> results = scatter(targets, shard -> shard.query(sql, ROW_MAPPER, args.toArray()));
+
+        List<MemberTeamDto> content = merge(results, comparator(pageable.getSort()), offset, size + 1);
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content.remove(size);
+        }
+        searchShapeMetrics.recordPage(condition, start, content.size());
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * 팀 이름 조건이 있으면 팀 id 로 샤드를 결정, 없으면 전체 샤드
+     */
+    private Set<Integer> targetShards(MemberSearchCondition condition) {
+        Set<Integer> targets = new TreeSet<>();
+        if (hasText(condition.getTeamName())) {
+            List<Long> teamIds = shards.shard(0)
+                    .queryForList("select team_id from team where name = ?", Long.class, condition.getTeamName());
+            teamIds.forEach(teamId -> targets.add(shards.shardOf(teamId)));
+        } else {
+            for (int i = 0; i < shards.size(); i++) {
+                targets.add(i);
+            }
+        }
+        return targets;
+    }
+
+    private <T> List<T> scatter(Set<Integer> targets, Function<JdbcTemplate, T> query) {
+        List<CompletableFuture<T>> futures = targets.stream()
+                .map(index -> CompletableFuture.supplyAsync(() -> query.apply(shards.shard(index)), shards.executor()))
+                .collect(toList());
+        return join(futures);
+    }
+
+    private static <T> List<T> join(List<CompletableFuture<T>> futures) {
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 정렬된 샤드별 결과를 k-way 병합, offset 만큼 건너뛰고 limit 건 반환
+     */
+    private static List<MemberTeamDto> merge(List<List<MemberTeamDto>> results, Comparator<MemberTeamDto> comparator,
+                                             long offset, int limit) {
+        PriorityQueue<Cursor> queue = new PriorityQueue<>(Math.max(1, results.size()),
+                (a, b) -> comparator.compare(a.current(), b.current()));
+        for (List<MemberTeamDto> result : results) {
+            if (!result.isEmpty()) {
+                queue.add(new Cursor(result));
+            }
+        }
+
+        List<MemberTeamDto> merged = new ArrayList<>(Math.min(limit, 1024));
+        long skipped = 0;
+        while (!queue.isEmpty() && merged.size() < limit) {
+            Cursor cursor = queue.poll();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                merged.add(cursor.current());
+            }
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private static String orderBy(Sort sort) {
+        StringBuilder orderBy = new StringBuilder(" order by ");
+        for (Sort.Order order : sort) {
+            orderBy.append(sortColumn(order.getProperty()))
+                    .append(order.isAscending() ? " asc nulls first, " : " desc nulls last, ");
+        }
+        // 샤드 간 병합 순서를 결정적으로 만들기 위한 tie-breaker
+        return orderBy.append("m.member_id asc").toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparator<MemberTeamDto> comparator(Sort sort) {
+        Comparator<MemberTeamDto> comparator = null;
+        for (Sort.Order order : sort) {
+            sortColumn(order.getProperty());
+            Function<MemberTeamDto, Comparable> key = SORT_KEYS.get(order.getProperty());
+            Comparator<MemberTeamDto> next = Comparator.comparing(key,
+                    Comparator.nullsFirst(Comparator.<Comparable>naturalOrder()));
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<MemberTeamDto> byId = Comparator.comparing(MemberTeamDto::getMemberId);
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    private static String sortColumn(String property) {
+        String column = SORT_COLUMNS.get(property);
+        if (column == null) {
+            throw new IllegalArgumentException("unsupported sort property: " + property);
+        }
+        return column;
+    }
+
+    private static class Cursor {
+        private final List<MemberTeamDto> rows;
+        private int position;
+
+        Cursor(List<MemberTeamDto> rows) {
+            this.rows = rows;
+        }
+
+        MemberTeamDto current() {
+            return rows.get(position);
+        }
+
+        boolean advance() {
+            return ++position < rows.size();
+        }
+    }
+
+    private static class Where {
+        private final String sql;
+        private final List<Object> args;
+
+        private Where(String sql, List<Object> args) {
+            this.sql = sql;
+            this.args = args;
+        }
+
+        static Where of(MemberSearchCondition condition) {
+            StringBuilder sql = new StringBuilder(" where 1 = 1");
+            List<Object> args = new ArrayList<>();
+            if (hasText(condition.getUsername())) {
+                sql.append(" and m.username = ?");
+                args.add(condition.getUsername());
+            }
+            if (hasText(condition.getTeamName())) {
+                sql.append(" and t.name = ?");
+                args.add(condition.getTeamName());
+            }
+            if (condition.getAgeGoe() != null) {
+                sql.append(" and m.age >= ?");
+                args.add(condition.getAgeGoe());
+            }
+            if (condition.getAgeLoe() != null) {
+                sql.append(" and m.age <= ?");
+                args.add(condition.getAgeLoe());
+            }
+            return new Where(sql.toString(), args);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * 지연 조인(deferred join) 페이징 정의
+ * 1단계: 필터/정렬만으로 페이지에 해당하는 id 조회 (조인 최소화, 인덱스만으로 처리 가능)
+ * 2단계: 해당 id 의 행만 조인해서 조회, 1단계의 순서를 유지
+ *
+ * @see Querydsl4RepositorySupport#applyPagination(org.springframework.data.domain.Pageable, DeferredJoin)
+ */
+public class DeferredJoin<T> {
+
+    private final Function<JPAQueryFactory, JPAQuery<Long>> idQuery;
+    private final BiFunction<JPAQueryFactory, List<Long>, JPAQuery<T>> contentQuery;
+    private final Function<T, Long> idExtractor;
+    private Function<JPAQueryFactory, JPAQuery<?>> countQuery;
+
+    private DeferredJoin(Function<JPAQueryFactory, JPAQuery<Long>> idQuery,
+                         BiFunction<JPAQueryFactory, List<Long>, JPAQuery<T>> contentQuery,
+                         Function<T, Long> idExtractor) {
+        this.idQuery = idQuery;
+        this.contentQuery = contentQuery;
+        this.idExtractor = idExtractor;
+    }
+
+    public static <T> DeferredJoin<T> of(Function<JPAQueryFactory, JPAQuery<Long>> idQuery,
+                                         BiFunction<JPAQueryFactory, List<Long>, JPAQuery<T>> contentQuery,
+                                         Function<T, Long> idExtractor) {
+        return new DeferredJoin<>(idQuery, contentQuery, idExtractor);
+    }
+
+    /**
+     * 별도 count 쿼리, 지정하지 않으면 id 쿼리로 count
+     */
+    public DeferredJoin<T> countQuery(Function<JPAQueryFactory, JPAQuery<?>> countQuery) {
+        this.countQuery = countQuery;
+        return this;
+    }
+
+    Function<JPAQueryFactory, JPAQuery<Long>> getIdQuery() {
+        return idQuery;
+    }
+
+    BiFunction<JPAQueryFactory, List<Long>, JPAQuery<T>> getContentQuery() {
+        return contentQuery;
+    }
+
+    Function<T, Long> getIdExtractor() {
+        return idExtractor;
+    }
+
+    Function<JPAQueryFactory, JPAQuery<?>> getCountQuery() {
+        return countQuery != null ? countQuery : idQuery::apply;
+    }
+}
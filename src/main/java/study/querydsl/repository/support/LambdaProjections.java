@@ -0,0 +1,295 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.FactoryExpressionBase;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Visitor;
+import com.querydsl.core.util.ConstructorUtils;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 리플렉션 없는 DTO 프로젝션 (Projections.constructor / bean / fields 대체)
+ * DTO 클래스마다 한 번 MethodHandle / LambdaMetafactory 로 생성자, setter, 필드 접근자를 만들어 캐시하고
+ * 행마다 Constructor.newInstance / Method.invoke 대신 직접 호출한다
+ *
+ * bean/fields 는 Projections.bean/fields 와 같이 Path 이름 또는 as("alias") 로 프로퍼티를 찾고 null 값은 건너뛴다
+ */
+public final class LambdaProjections {
+
+    private static final ConcurrentMap<List<Object>, MethodHandle> CONSTRUCTORS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, Supplier<Object>> SUPPLIERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, Map<String, BiConsumer<Object, Object>>> SETTERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, Map<String, BiConsumer<Object, Object>>> FIELDS = new ConcurrentHashMap<>();
+
+    private LambdaProjections() {
+    }
+
+    public static <T> FactoryExpression<T> constructor(Class<? extends T> type, Expression<?>... exprs) {
+        return new ConstructorProjection<>(type, exprs);
+    }
+
+    public static <T> FactoryExpression<T> bean(Class<? extends T> type, Expression<?>... exprs) {
+        return new PropertyProjection<>(type, exprs, setters(type));
+    }
+
+    public static <T> FactoryExpression<T> fields(Class<? extends T> type, Expression<?>... exprs) {
+        return new PropertyProjection<>(type, exprs, fieldSetters(type));
+    }
+
+    private static class ConstructorProjection<T> extends FactoryExpressionBase<T> {
+
+        private final List<Expression<?>> args;
+        // (Object[])Object 로 변환된 생성자 핸들
+        private final MethodHandle constructor;
+        private final Object[] primitiveDefaults;
+
+        @SuppressWarnings("unchecked")
+        ConstructorProjection(Class<? extends T> type, Expression<?>[] exprs) {
+            super((Class<? extends T>) type);
+            this.args = Collections.unmodifiableList(Arrays.asList(exprs.clone()));
+            Class<?>[] argTypes = Arrays.stream(exprs).map(Expression::getType).toArray(Class<?>[]::new);
+            this.constructor = CONSTRUCTORS.computeIfAbsent(Arrays.asList(type, Arrays.asList(argTypes)),
+                    key -> constructorHandle(type, argTypes));
+
+            // Projections.constructor 와 같이 primitive 파라미터의 null 은 기본값으로
+            Class<?>[] parameterTypes = parameterTypes(type, argTypes);
+            this.primitiveDefaults = new Object[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (parameterTypes[i].isPrimitive()) {
+                    primitiveDefaults[i] = Array.get(Array.newInstance(parameterTypes[i], 1), 0);
+                }
+            }
+        }
+
+        @Override
+        public List<Expression<?>> getArgs() {
+            return args;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T newInstance(Object... values) {
+            for (int i = 0; i < primitiveDefaults.length; i++) {
+                if (values[i] == null && primitiveDefaults[i] != null) {
+                    values[i] = primitiveDefaults[i];
+                }
+            }
+            try {
+                return (T) constructor.invokeExact(values);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("cannot create " + getType().getName(), e);
+            }
+        }
+
+        @Override
+        public <R, C> R accept(Visitor<R, C> v, C context) {
+            return v.visit(this, context);
+        }
+    }
+
+    private static class PropertyProjection<T> extends FactoryExpressionBase<T> {
+
+        private final List<Expression<?>> args;
+        private final Supplier<Object> supplier;
+        private final BiConsumer<Object, Object>[] writers;
+
+        @SuppressWarnings("unchecked")
+        PropertyProjection(Class<? extends T> type, Expression<?>[] exprs, Map<String, BiConsumer<Object, Object>> properties) {
+            super((Class<? extends T>) type);
+            this.supplier = SUPPLIERS.computeIfAbsent(type, LambdaProjections::supplier);
+
+            List<Expression<?>> args = new ArrayList<>(exprs.length);
+            this.writers = new BiConsumer[exprs.length];
+            for (int i = 0; i < exprs.length; i++) {
+                String name = propertyName(exprs[i]);
+                BiConsumer<Object, Object> writer = properties.get(name);
+                if (writer == null) {
+                    throw new IllegalArgumentException("no property " + name + " in " + type.getName());
+                }
+                writers[i] = writer;
+                args.add(exprs[i]);
+            }
+            this.args = Collections.unmodifiableList(args);
+        }
+
+        @Override
+        public List<Expression<?>> getArgs() {
+            return args;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T newInstance(Object... values) {
+            Object bean = supplier.get();
+            for (int i = 0; i < writers.length; i++) {
+                if (values[i] != null) {
+                    writers[i].accept(bean, values[i]);
+                }
+            }
+            return (T) bean;
+        }
+
+        @Override
+        public <R, C> R accept(Visitor<R, C> v, C context) {
+            return v.visit(this, context);
+        }
+    }
+
+    private static String propertyName(Expression<?> expr) {
+        if (expr instanceof Path) {
+            return ((Path<?>) expr).getMetadata().getName();
+        }
+        if (expr instanceof Operation) {
+            Operation<?> operation = (Operation<?>) expr;
+            if (operation.getOperator() == Ops.ALIAS && operation.getArg(1) instanceof Path) {
+                return ((Path<?>) operation.getArg(1)).getMetadata().getName();
+            }
+        }
+        throw new IllegalArgumentException("unsupported expression " + expr);
+    }
+
+    private static Class<?>[] parameterTypes(Class<?> type, Class<?>[] argTypes) {
+        try {
+            return ConstructorUtils.getConstructor(type, argTypes).getParameterTypes();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static MethodHandle constructorHandle(Class<?> type, Class<?>[] argTypes) {
+        try {
+            Constructor<?> constructor = ConstructorUtils.getConstructor(type, argTypes);
+            MethodHandle handle = lookup(type).unreflectConstructor(constructor);
+            return handle.asType(handle.type().changeReturnType(Object.class).generic())
+                    .asSpreader(Object[].class, constructor.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("no accessible constructor " + type.getName()
+                    + Arrays.toString(argTypes), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> supplier(Class<?> type) {
+        try {
+            MethodHandles.Lookup lookup = lookup(type);
+            MethodHandle constructor = lookup.findConstructor(type, MethodType.methodType(void.class));
+            CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+                    MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class),
+                    constructor,
+                    MethodType.methodType(type));
+            return (Supplier<Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("no accessible default constructor in " + type.getName(), e);
+        }
+    }
+
+    /**
+     * setter 이름 → (bean, value) 람다
+     */
+    private static Map<String, BiConsumer<Object, Object>> setters(Class<?> type) {
+        return SETTERS.computeIfAbsent(type, key -> {
+            try {
+                MethodHandles.Lookup lookup = lookup(type);
+                Map<String, BiConsumer<Object, Object>> setters = new HashMap<>();
+                for (PropertyDescriptor property : Introspector.getBeanInfo(type).getPropertyDescriptors()) {
+                    Method setter = property.getWriteMethod();
+                    if (setter != null) {
+                        setters.put(property.getName(), setter(lookup, type, setter));
+                    }
+                }
+                return setters;
+            } catch (IntrospectionException | IllegalAccessException e) {
+                throw new IllegalArgumentException("cannot introspect " + type.getName(), e);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(MethodHandles.Lookup lookup, Class<?> type, Method setter)
+            throws IllegalAccessException {
+        MethodHandle handle = lookup.unreflect(setter);
+        Class<?> valueType = MethodType.methodType(setter.getParameterTypes()[0]).wrap().returnType();
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(void.class, type, valueType));
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            // 람다를 만들 수 없는 경우(상속받은 setter 등) MethodHandle 직접 호출
+            return invoker(handle.asType(MethodType.methodType(void.class, Object.class, Object.class)));
+        }
+    }
+
+    /**
+     * 필드 이름 → (bean, value) setter 핸들 (상위 클래스 필드 포함, static/final 제외)
+     */
+    private static Map<String, BiConsumer<Object, Object>> fieldSetters(Class<?> type) {
+        return FIELDS.computeIfAbsent(type, key -> {
+            Map<String, BiConsumer<Object, Object>> setters = new HashMap<>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || setters.containsKey(field.getName())) {
+                        continue;
+                    }
+                    try {
+                        MethodHandle handle = lookup(current).unreflectSetter(field);
+                        setters.put(field.getName(),
+                                invoker(handle.asType(MethodType.methodType(void.class, Object.class, Object.class))));
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalArgumentException("cannot access field " + field, e);
+                    }
+                }
+            }
+            return setters;
+        });
+    }
+
+    private static BiConsumer<Object, Object> invoker(MethodHandle handle) {
+        return (bean, value) -> {
+            try {
+                handle.invokeExact(bean, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    private static MethodHandles.Lookup lookup(Class<?> type) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+    }
+}
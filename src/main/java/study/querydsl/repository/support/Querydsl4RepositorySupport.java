@@ -8,16 +8,23 @@ import com.querydsl.jpa.impl.JPAQueryFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
 import org.springframework.data.jpa.repository.support.Querydsl;
 import org.springframework.data.querydsl.SimpleEntityPathResolver;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.util.Assert;
+import study.querydsl.monitoring.jfr.QueryEvents;
 
 import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -72,19 +79,80 @@ public class Querydsl4RepositorySupport {
     protected <T> Page<T> applyPagination(Pageable pageable,
                                           Function<JPAQueryFactory, JPAQuery> contentQuery) {
         JPAQuery jpaQuery = contentQuery.apply(getQueryFactory());
-        List<T> content = getQuerydsl().applyPagination(pageable,
-                jpaQuery).fetch();
+        List<T> content = QueryEvents.content(getQuerydsl().applyPagination(pageable,
+                jpaQuery)::fetch);
         return PageableExecutionUtils.getPage(content, pageable,
-                jpaQuery::fetchCount);
+                QueryEvents.count(jpaQuery::fetchCount));
     }
     protected <T> Page<T> applyPagination(Pageable pageable,
                                           Function<JPAQueryFactory, JPAQuery> contentQuery, Function<JPAQueryFactory,
             JPAQuery> countQuery) {
         JPAQuery jpaContentQuery = contentQuery.apply(getQueryFactory());
-        List<T> content = getQuerydsl().applyPagination(pageable,
-                jpaContentQuery).fetch();
+        List<T> content = QueryEvents.content(getQuerydsl().applyPagination(pageable,
+                jpaContentQuery)::fetch);
         JPAQuery countResult = countQuery.apply(getQueryFactory());
         return PageableExecutionUtils.getPage(content, pageable,
-                countResult::fetchCount);
+                QueryEvents.count(countResult::fetchCount));
+    }
+    /**
+     * count 쿼리 없는 Slice 페이징: limit + 1 건을 조회해 다음 페이지 유무를 판단
+     * 쿼리에 orderBy 가 있으면 pageable 의 정렬 대신 그대로 사용한다 (페이지 간 순서가 고정되도록 유일한 정렬 권장)
+     */
+    protected <T> Slice<T> applySlice(Pageable pageable,
+                                      Function<JPAQueryFactory, JPAQuery> contentQuery) {
+        JPAQuery jpaQuery = contentQuery.apply(getQueryFactory());
+        if (jpaQuery.getMetadata().getOrderBy().isEmpty()) {
+            getQuerydsl().applySorting(pageable.getSort(), jpaQuery);
+        }
+        if (pageable.isUnpaged()) {
+            List<T> content = QueryEvents.content(jpaQuery::fetch);
+            return new SliceImpl<>(content, pageable, false);
+        }
+        List<T> content = QueryEvents.content(jpaQuery
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1)::fetch);
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+    /**
+     * 지연 조인 페이징: id 만으로 페이지를 먼저 자르고, 해당 id 의 행만 조인해서 조회
+     * offset 이 클 때 버려질 행까지 조인하지 않는다
+     * id 쿼리에 orderBy 가 있으면 pageable 의 정렬 대신 그대로 사용한다
+     */
+    protected <T> Page<T> applyPagination(Pageable pageable, DeferredJoin<T> deferredJoin) {
+        JPAQuery<Long> idQuery = deferredJoin.getIdQuery().apply(getQueryFactory());
+        if (idQuery.getMetadata().getOrderBy().isEmpty()) {
+            getQuerydsl().applySorting(pageable.getSort(), idQuery);
+        }
+        if (pageable.isPaged()) {
+            idQuery.offset(pageable.getOffset()).limit(pageable.getPageSize());
+        }
+        List<Long> ids = QueryEvents.ids(idQuery::fetch);
+
+        List<T> content = ids.isEmpty()
+                ? Collections.emptyList()
+                : orderByIds(ids, QueryEvents.content(deferredJoin.getContentQuery().apply(getQueryFactory(), ids)::fetch),
+                deferredJoin.getIdExtractor());
+
+        JPAQuery<?> countResult = deferredJoin.getCountQuery().apply(getQueryFactory());
+        return PageableExecutionUtils.getPage(content, pageable,
+                QueryEvents.count(countResult::fetchCount));
+    }
+    private <T> List<T> orderByIds(List<Long> ids, List<T> rows, Function<T, Long> idExtractor) {
+        Map<Long, T> rowsById = new HashMap<>(rows.size() * 2);
+        for (T row : rows) {
+            rowsById.put(idExtractor.apply(row), row);
+        }
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T row = rowsById.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
     }
 }
@@ -0,0 +1,29 @@
+package study.querydsl.repository.support;
+
+import lombok.Value;
+import org.springframework.data.domain.Pageable;
+import study.querydsl.dto.MemberSearchCondition;
+
+/**
+ * 검색 요청 식별 키 (결과 캐시, 요청 병합에 사용)
+ * MemberSearchCondition 은 변경 가능한 객체라 값을 복사해 둔다
+ */
+@Value
+public class SearchKey {
+
+    String method;
+    String username;
+    String teamName;
+    Integer ageGoe;
+    Integer ageLoe;
+    Pageable pageable;
+
+    public static SearchKey of(String method, MemberSearchCondition condition, Pageable pageable) {
+        return new SearchKey(method,
+                condition.getUsername(),
+                condition.getTeamName(),
+                condition.getAgeGoe(),
+                condition.getAgeLoe(),
+                pageable);
+    }
+}
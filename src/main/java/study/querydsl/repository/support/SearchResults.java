@@ -0,0 +1,49 @@
+package study.querydsl.repository.support;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import study.querydsl.dto.MemberTeamDto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 여러 호출자가 나눠 받는 검색 결과 복사 (SearchResultCache, SearchSingleFlight)
+ * MemberTeamDto 는 가변(@Data)이므로 행마다 새로 만들고, List 는 수정 불가로 감싼다
+ */
+public final class SearchResults {
+
+    private SearchResults() {
+    }
+
+    public static Object copy(Object value) {
+        if (value instanceof Page) {
+            Page<?> page = (Page<?>) value;
+            return new PageImpl<>(copyContent(page.getContent()), page.getPageable(), page.getTotalElements());
+        }
+        if (value instanceof Slice) {
+            Slice<?> slice = (Slice<?>) value;
+            return new SliceImpl<>(copyContent(slice.getContent()), slice.getPageable(), slice.hasNext());
+        }
+        if (value instanceof List) {
+            return copyContent((List<?>) value);
+        }
+        return value;
+    }
+
+    private static List<Object> copyContent(List<?> content) {
+        List<Object> copy = new ArrayList<>(content.size());
+        for (Object row : content) {
+            if (row instanceof MemberTeamDto) {
+                MemberTeamDto dto = (MemberTeamDto) row;
+                row = new MemberTeamDto(dto.getMemberId(), dto.getUsername(), dto.getAge(),
+                        dto.getTeamId(), dto.getTeamName());
+            }
+            copy.add(row);
+        }
+        return Collections.unmodifiableList(copy);
+    }
+}
@@ -0,0 +1,97 @@
+package study.querydsl.repository.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.dto.MemberSearchCondition;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * 동일한 검색 요청 병합(single-flight)
+ * 같은 조건/페이지의 조회가 동시에 들어오면 먼저 온 요청만 실행하고 나머지는 그 결과를 공유한다
+ *
+ * 트랜잭션 안의 호출은 자신의 트랜잭션 상태를 봐야 하므로 병합하지 않는다
+ *
+ * 결과(MemberTeamDto 는 가변)는 공유하지 않는다: 먼저 온 요청은 조회한 값을 그대로 받고,
+ * 합류한 요청은 완료 시점에 떠 둔 사본을 다시 복사해 받는다 (SearchResults.copy)
+ */
+@Component
+public class SearchSingleFlight {
+
+    private final ConcurrentMap<SearchKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final Counter executed;
+    private final Counter coalesced;
+
+    public SearchSingleFlight(MeterRegistry meterRegistry,
+                              @Value("${member.single-flight.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+        this.executed = Counter.builder("member.search.single-flight")
+                .tag("result", "executed")
+                .description("search calls that ran their own query")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("member.search.single-flight")
+                .tag("result", "coalesced")
+                .description("search calls that shared an in-flight query")
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String method, MemberSearchCondition condition, Pageable pageable, Supplier<T> loader) {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+
+        SearchKey key = SearchKey.of(method, condition, pageable);
+        CompletableFuture<Object> existing = inFlight.get(key);
+        if (existing == null) {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            existing = inFlight.putIfAbsent(key, future);
+            if (existing == null) {
+                return lead(key, future, loader);
+            }
+        }
+
+        coalesced.increment();
+        return (T) SearchResults.copy(await(existing));
+    }
+
+    private <T> T lead(SearchKey key, CompletableFuture<Object> future, Supplier<T> loader) {
+        executed.increment();
+        try {
+            T value = loader.get();
+            // 완료 전에 제거해, 완료 이후 요청은 새로 실행되도록 한다
+            inFlight.remove(key, future);
+            // 호출자에게 돌려주기 전에 사본을 떠 두므로 호출자가 결과를 바꿔도 합류한 요청에 보이지 않는다
+            future.complete(SearchResults.copy(value));
+            return value;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package study.querydsl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 기동 시간 측정: 프로세스 시작부터 첫 /hello 200 응답까지
+ * 매번 새 JVM 을 띄워 측정한다 (./gradlew startupTest)
+ * 두 프로필을 번갈아 띄워 같은 조건에서 비교하고, faststart 중앙값이 기본 프로필보다 MIN_IMPROVEMENT 이상 빨라야 한다
+ */
+@Slf4j
+@Tag("startup")
+class FastStartupTest {
+
+    private static final int RUNS = 5;
+    // 기본 프로필 대비 최소 단축 비율
+    private static final double MIN_IMPROVEMENT = 0.1;
+    private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(60);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    @Test
+    void timeToFirstHello() throws Exception {
+        List<Long> defaultTimes = new ArrayList<>();
+        List<Long> fastTimes = new ArrayList<>();
+        // 번갈아 측정해 디스크 캐시 등 시간에 따른 편차가 한쪽 프로필에만 몰리지 않게 한다
+        for (int i = 0; i < RUNS; i++) {
+            defaultTimes.add(timeToFirstHello("local", "startupDefault" + i));
+            fastTimes.add(timeToFirstHello("local,faststart", "startupFast" + i));
+        }
+
+        long defaultMedian = median(defaultTimes);
+        long fastMedian = median(fastTimes);
+        log.info("time to first /hello (ms) default = {}, faststart = {}", defaultTimes, fastTimes);
+        log.info("median (ms) default = {}, faststart = {} ({}% faster)",
+                defaultMedian, fastMedian, Math.round(100.0 * (defaultMedian - fastMedian) / defaultMedian));
+
+        assertThat(fastMedian).isLessThanOrEqualTo(Math.round(defaultMedian * (1 - MIN_IMPROVEMENT)));
+    }
+
+    private long timeToFirstHello(String profiles, String dbName) throws Exception {
+        int port = freePort();
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java,
+                "-cp", System.getProperty("java.class.path"),
+                QuerydslApplication.class.getName(),
+                "--server.port=" + port,
+                "--spring.profiles.active=" + profiles,
+                "--spring.datasource.url=jdbc:h2:mem:" + dbName + ";DB_CLOSE_DELAY=-1")
+                .redirectErrorStream(true)
+                .redirectOutput(new File(System.getProperty("java.io.tmpdir"), "startup-" + port + ".log"))
+                .start();
+
+        long start = System.nanoTime();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/hello"))
+                    .timeout(Duration.ofSeconds(5))
+                    .build();
+            while (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < TIMEOUT_MILLIS) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("application exited with " + process.exitValue());
+                }
+                try {
+                    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                    if (response.statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // 아직 포트가 열리지 않음
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("no /hello response within " + TIMEOUT_MILLIS + " ms (" + profiles + ")");
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static long median(List<Long> times) {
+        List<Long> sorted = new ArrayList<>(times);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
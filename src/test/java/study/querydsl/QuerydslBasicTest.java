@@ -20,6 +20,7 @@ import study.querydsl.dto.UserDto;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.QMember;
 import study.querydsl.entity.Team;
+import study.querydsl.repository.support.LambdaProjections;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -502,6 +503,19 @@ public class QuerydslBasicTest {
         fetch.forEach(System.out::println);
     }
 
+    @Test
+    public void findDtoByLambdaProjections() {
+        List<UserDto> fetch = queryFactory
+                .select(LambdaProjections.bean(UserDto.class
+                        , member.username.as("name")
+                        , member.age))
+                .from(member)
+                .fetch();
+
+        fetch.forEach(System.out::println);
+        assertThat(fetch).extracting("name").contains("member1", "member2", "member3", "member4");
+    }
+
     @Test
     public void findDtoByQueryProjection() {
         List<MemberDto> fetch = queryFactory
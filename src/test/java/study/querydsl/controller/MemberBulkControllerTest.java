@@ -0,0 +1,184 @@
+package study.querydsl.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 청크마다 커밋하므로 테스트 트랜잭션이 아니라 커밋된 데이터로 검증
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberBulkControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> em.persist(new Team("bulkTeam")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.username like 'bulk%'").executeUpdate();
+            em.createQuery("delete from Team t where t.name = 'bulkTeam'").executeUpdate();
+        });
+    }
+
+    @Test
+    void bulkInsert() throws Exception {
+        mockMvc.perform(post("/members/bulk").param("chunkSize", "2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"username\":\"bulk1\",\"age\":10,\"teamName\":\"bulkTeam\"},"
+                                + "{\"username\":\"bulk2\",\"age\":20},"
+                                + "{\"username\":\"bulk3\",\"teamName\":\"bulkTeam\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(3))
+                .andExpect(jsonPath("$.failed").value(0))
+                .andExpect(jsonPath("$.rolledBackChunks").value(0));
+
+        assertThat(usernames()).containsExactly("bulk1", "bulk2", "bulk3");
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from member m join team t on m.team_id = t.team_id"
+                        + " where t.name = 'bulkTeam'", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    void malformedRowsAreReported() throws Exception {
+        mockMvc.perform(post("/members/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"username\":\"bulk1\"},"
+                                + "{\"age\":10},"
+                                + "{\"username\":\"bulk3\",\"age\":\"old\"},"
+                                + "42,"
+                                + "{\"username\":\"bulk5\",\"age\":50}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.errors[0]").value("row 1: username is required"))
+                .andExpect(jsonPath("$.errors[1]").value("row 2: age must be an integer"))
+                .andExpect(jsonPath("$.errors[2]").value("row 3: JSON object expected"));
+
+        assertThat(usernames()).containsExactly("bulk1", "bulk5");
+    }
+
+    @Test
+    void notAnArrayIsBadRequest() throws Exception {
+        mockMvc.perform(post("/members/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"bulk1\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void unknownTeamIsReported() throws Exception {
+        mockMvc.perform(post("/members/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"username\":\"bulk1\",\"teamName\":\"noSuchTeam\"},"
+                                + "{\"username\":\"bulk2\",\"teamName\":\"bulkTeam\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0]").value("row 0: unknown team: noSuchTeam"));
+
+        assertThat(usernames()).containsExactly("bulk2");
+    }
+
+    @Test
+    void failedChunkIsRolledBackAndReported() throws Exception {
+        // username 컬럼 길이(255) 초과 → 두 번째 청크만 DB 오류로 롤백, 첫 청크는 커밋된 채 남는다
+        String tooLong = "bulk" + "x".repeat(300);
+        mockMvc.perform(post("/members/bulk").param("chunkSize", "2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"username\":\"bulk1\"},{\"username\":\"bulk2\"},"
+                                + "{\"username\":\"bulk3\"},{\"username\":\"" + tooLong + "\"},"
+                                + "{\"username\":\"bulk5\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(3))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.rolledBackChunks").value(1))
+                .andExpect(jsonPath("$.errors", hasItem(startsWith("row 2: chunk rolled back"))))
+                .andExpect(jsonPath("$.errors", hasItem(startsWith("row 3: chunk rolled back"))));
+
+        assertThat(usernames()).containsExactly("bulk1", "bulk2", "bulk5");
+    }
+
+    @Test
+    void fractionalAgeIsRejected() throws Exception {
+        mockMvc.perform(post("/members/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"username\":\"bulk1\",\"age\":12.7},{\"username\":\"bulk2\",\"age\":12.0}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(0))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.errors[0]").value("row 0: age must be an integer"))
+                .andExpect(jsonPath("$.errors[1]").value("row 1: age must be an integer"));
+
+        assertThat(usernames()).isEmpty();
+    }
+
+    @Test
+    void malformedJsonMidStreamReturnsPartialReport() throws Exception {
+        // 첫 청크(0, 1)는 커밋, 대기 중인 2번은 저장하지 않고, 3번에서 중단
+        mockMvc.perform(post("/members/bulk").param("chunkSize", "2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"username\":\"bulk1\"},{\"username\":\"bulk2\"},"
+                                + "{\"username\":\"bulk3\"},{\"username\" \"bulk4\"},"
+                                + "{\"username\":\"bulk5\"}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.aborted").value(true))
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.errors[0]").value("row 2: not saved: request aborted at row 3"))
+                .andExpect(jsonPath("$.errors[1]").value(startsWith("row 3: malformed JSON")));
+
+        assertThat(usernames()).containsExactly("bulk1", "bulk2");
+    }
+
+    @Test
+    void truncatedBodyReturnsPartialReport() throws Exception {
+        mockMvc.perform(post("/members/bulk").param("chunkSize", "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"username\":\"bulk1\"},{\"username\":\"bulk2\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.aborted").value(true))
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.errors[0]").value(startsWith("row 2: ")));
+
+        assertThat(usernames()).containsExactly("bulk1", "bulk2");
+    }
+
+    private List<String> usernames() {
+        return jdbcTemplate.queryForList(
+                "select username from member where username like 'bulk%' order by member_id", String.class);
+    }
+}
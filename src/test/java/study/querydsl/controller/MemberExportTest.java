@@ -0,0 +1,124 @@
+package study.querydsl.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * export.csv 는 StatelessSession / 구간별 EntityManager 로 읽으므로 커밋된 데이터로 검증
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberExportTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    Long teamId;
+    Long plainId;
+    Long quotedId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team exportTeam = new Team("exportTeam");
+            em.persist(exportTeam);
+            Team otherTeam = new Team("exportOther");
+            em.persist(otherTeam);
+
+            Member plain = new Member("export1", 10, exportTeam);
+            Member quoted = new Member("export, \"quoted\"", 20, exportTeam);
+            em.persist(plain);
+            em.persist(quoted);
+            em.persist(new Member("export3", 5, exportTeam));
+            em.persist(new Member("export4", 30, otherTeam));
+            em.flush();
+
+            teamId = exportTeam.getId();
+            plainId = plain.getId();
+            quotedId = quoted.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.username like 'export%'").executeUpdate();
+            em.createQuery("delete from Team t where t.name like 'export%'").executeUpdate();
+        });
+    }
+
+    @Test
+    void exportFiltersAndEscapes() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/members/export.csv")
+                        .param("teamName", "exportTeam")
+                        .param("ageGoe", "10"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertThat(response.getContentType()).startsWith("text/csv");
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo(expectedCsv());
+    }
+
+    @Test
+    void exportGzip() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/members/export.csv")
+                        .param("teamName", "exportTeam")
+                        .param("ageGoe", "10")
+                        .param("gzip", "true"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(expectedCsv());
+    }
+
+    @Test
+    void exportParallelMatchesSequential() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/members/export.csv")
+                        .param("teamName", "exportTeam")
+                        .param("ageGoe", "10")
+                        .param("parallel", "true"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo(expectedCsv());
+    }
+
+    private String expectedCsv() {
+        return "memberId,username,age,teamId,teamName\n"
+                + plainId + ",export1,10," + teamId + ",exportTeam\n"
+                + quotedId + ",\"export, \"\"quoted\"\"\",20," + teamId + ",exportTeam\n";
+    }
+
+    private static String gunzip(byte[] gzipped) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package study.querydsl.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.monitoring.SearchShapeMetrics;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.controller.SearchAdmissionControl.CostClass.CHEAP;
+import static study.querydsl.controller.SearchAdmissionControl.CostClass.EXPENSIVE;
+
+class SearchAdmissionControlTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SearchShapeMetrics searchShapeMetrics = new SearchShapeMetrics(meterRegistry);
+    private final SearchAdmissionControl admissionControl = new SearchAdmissionControl(searchShapeMetrics,
+            meterRegistry, true, 1, 1, 1000, Duration.ofMillis(50), Duration.ofSeconds(2));
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void classify() {
+        MemberSearchCondition empty = new MemberSearchCondition();
+        MemberSearchCondition byUsername = new MemberSearchCondition();
+        byUsername.setUsername("member1");
+
+        assertThat(admissionControl.classify(empty, null, true)).isEqualTo(EXPENSIVE);
+        assertThat(admissionControl.classify(byUsername, null, true)).isEqualTo(CHEAP);
+        assertThat(admissionControl.classify(empty, PageRequest.of(0, 20), false)).isEqualTo(CHEAP);
+        assertThat(admissionControl.classify(empty, PageRequest.of(100, 20), false)).isEqualTo(EXPENSIVE);
+
+        // 관측된 결과 건수가 적은 shape 는 전체 조회여도 cheap
+        MemberSearchCondition byTeam = new MemberSearchCondition();
+        byTeam.setTeamName("teamA");
+        searchShapeMetrics.record(byTeam, System.nanoTime(), 50);
+        assertThat(admissionControl.classify(byTeam, null, true)).isEqualTo(CHEAP);
+    }
+
+    @Test
+    void countedPageIsEstimatedByMatchingRows() {
+        // /v2, /v3 는 첫 페이지라도 count 쿼리가 조건에 맞는 행을 모두 센다
+        MemberSearchCondition empty = new MemberSearchCondition();
+        MemberSearchCondition byUsername = new MemberSearchCondition();
+        byUsername.setUsername("member1");
+
+        assertThat(admissionControl.classify(empty, PageRequest.of(0, 20), true)).isEqualTo(EXPENSIVE);
+        assertThat(admissionControl.classify(byUsername, PageRequest.of(0, 20), true)).isEqualTo(CHEAP);
+        assertThat(admissionControl.estimateRows(byUsername, PageRequest.of(0, 20), true)).isEqualTo(20);
+
+        MemberSearchCondition byTeam = new MemberSearchCondition();
+        byTeam.setTeamName("teamA");
+        searchShapeMetrics.record(byTeam, System.nanoTime(), 50);
+        assertThat(admissionControl.classify(byTeam, PageRequest.of(0, 20), true)).isEqualTo(CHEAP);
+        assertThat(admissionControl.estimateRows(byTeam, PageRequest.of(0, 20), true)).isEqualTo(50);
+    }
+
+    @Test
+    void pagedResultsDoNotLowerUnpagedEstimate() {
+        // /v2?size=20 같은 페이지 조회 결과 건수가 전체 조회 추정치를 대신하지 않는다
+        MemberSearchCondition empty = new MemberSearchCondition();
+        for (int i = 0; i < 5; i++) {
+            searchShapeMetrics.recordPage(empty, System.nanoTime(), 20);
+        }
+
+        assertThat(searchShapeMetrics.meanRows(SearchShapeMetrics.shapeOf(empty))).isEqualTo(-1);
+        assertThat(admissionControl.classify(empty, null, true)).isEqualTo(EXPENSIVE);
+
+        searchShapeMetrics.record(empty, System.nanoTime(), 5000);
+        assertThat(admissionControl.estimateRows(empty, null, true)).isEqualTo(5000);
+    }
+
+    @Test
+    void saturatedExpensiveClassIsShedWithRetryAfter() throws Exception {
+        MemberSearchCondition empty = new MemberSearchCondition();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> holder = executor.submit(() -> admissionControl.admit(empty, null, () -> {
+            started.countDown();
+            await(release);
+            return "first";
+        }));
+        started.await(5, TimeUnit.SECONDS);
+
+        assertThatThrownBy(() -> admissionControl.admit(empty, null, () -> "second"))
+                .isInstanceOfSatisfying(SearchRejectedException.class, e -> {
+                    assertThat(e.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                    assertThat(e.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+                });
+
+        // cheap 요청은 별도 한도
+        assertThat(admissionControl.admitSlice(empty, PageRequest.of(0, 20), () -> "cheap")).isEqualTo("cheap");
+
+        release.countDown();
+        assertThat(holder.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(admissionControl.admit(empty, null, () -> "third")).isEqualTo("third");
+        assertThat(meterRegistry.counter("member.search.admission", "class", "expensive", "result", "rejected").count())
+                .isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package study.querydsl.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "member.hibernate-statistics.enabled=true")
+@Transactional
+class HibernateStatisticsMetricsTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    HibernateStatisticsMetrics hibernateStatisticsMetrics;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void snapshot() {
+        hibernateStatisticsMetrics.clear();
+
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.flush();
+        em.clear();
+
+        em.createQuery("select m from Member m where m.age >= :age", Member.class)
+                .setParameter("age", 10)
+                .getResultList();
+
+        Map<String, Object> snapshot = hibernateStatisticsMetrics.snapshot();
+        Map<String, Object> summary = (Map<String, Object>) snapshot.get("summary");
+        Map<String, Map<String, Object>> entities = (Map<String, Map<String, Object>>) snapshot.get("entities");
+        List<Map<String, Object>> queries = (List<Map<String, Object>>) snapshot.get("queries");
+
+        assertThat((Long) summary.get("flushes")).isGreaterThanOrEqualTo(1L);
+        assertThat(entities.get("Member")).containsEntry("inserts", 2L).containsEntry("loads", 2L);
+        assertThat(entities.get("Team")).containsEntry("inserts", 1L);
+        assertThat(((Map<String, Object>) snapshot.get("collections"))).containsKey("Team.members");
+        assertThat(queries).anySatisfy(query -> {
+            assertThat((String) query.get("query")).contains("m.age >= :age");
+            assertThat(query).containsEntry("executions", 1L).containsEntry("rows", 2L);
+        });
+
+        assertThat(meterRegistry.get("hibernate.entity.inserts").tag("entity", "Member").functionCounter().count())
+                .isEqualTo(2);
+    }
+}
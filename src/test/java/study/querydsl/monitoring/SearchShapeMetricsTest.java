@@ -0,0 +1,40 @@
+package study.querydsl.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import study.querydsl.dto.MemberSearchCondition;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchShapeMetricsTest {
+
+    @Test
+    void shape() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        assertThat(SearchShapeMetrics.shapeName(SearchShapeMetrics.shapeOf(condition))).isEqualTo("none");
+
+        condition.setTeamName("teamA");
+        condition.setAgeLoe(40);
+        assertThat(SearchShapeMetrics.shapeName(SearchShapeMetrics.shapeOf(condition))).isEqualTo("teamName+ageLoe");
+    }
+
+    @Test
+    void record() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SearchShapeMetrics metrics = new SearchShapeMetrics(meterRegistry);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member1");
+        metrics.record(condition, System.nanoTime(), 1);
+        metrics.record(condition, System.nanoTime(), 3);
+        metrics.record(new MemberSearchCondition(), System.nanoTime(), 100);
+
+        List<Map<String, Object>> snapshot = metrics.snapshot();
+        assertThat(snapshot).extracting(entry -> entry.get("shape")).containsExactly("username", "none");
+        assertThat(snapshot.get(0)).containsEntry("count", 2L).containsEntry("maxRows", 3L);
+        assertThat(meterRegistry.get("member.search.shape").tag("shape", "username").timer().count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,68 @@
+package study.querydsl.monitoring;
+
+import com.p6spy.engine.common.StatementInformation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlowQueryDetectorTest {
+
+    private SlowQueryDetector detector;
+
+    @AfterEach
+    void tearDown() {
+        if (detector != null) {
+            detector.destroy();
+        }
+    }
+
+    @Test
+    void threshold() {
+        detector = detector(3);
+
+        detector.onAfterAnyExecute(statement("select 1"), TimeUnit.MILLISECONDS.toNanos(99), null);
+        assertThat(detector.recent()).isEmpty();
+
+        detector.onAfterAnyExecute(statement("select 2"), TimeUnit.MILLISECONDS.toNanos(150), null);
+        assertThat(detector.recent()).singleElement().satisfies(slowQuery -> {
+            assertThat(slowQuery.getSql()).isEqualTo("select 2");
+            assertThat(slowQuery.getElapsedMillis()).isEqualTo(150.0);
+            assertThat(slowQuery.getPlan()).isNull();
+        });
+    }
+
+    @Test
+    void ringBufferKeepsNewest() {
+        detector = detector(3);
+
+        for (int i = 1; i <= 5; i++) {
+            detector.onAfterAnyExecute(statement("select " + i), TimeUnit.MILLISECONDS.toNanos(200), null);
+        }
+
+        assertThat(detector.recent()).extracting(SlowQuery::getSql)
+                .containsExactly("select 5", "select 4", "select 3");
+    }
+
+    @Test
+    void bufferSizeMustBePositive() {
+        assertThatThrownBy(() -> detector(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static SlowQueryDetector detector(int bufferSize) {
+        return new SlowQueryDetector(new StaticListableBeanFactory().getBeanProvider(DataSource.class),
+                Duration.ofMillis(100), bufferSize, false);
+    }
+
+    private static StatementInformation statement(String sql) {
+        StatementInformation statementInformation = new StatementInformation(null);
+        statementInformation.setStatementQuery(sql);
+        return statementInformation;
+    }
+}
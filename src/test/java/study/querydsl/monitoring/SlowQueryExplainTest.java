@@ -0,0 +1,55 @@
+package study.querydsl.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 실제 p6spy 경로로 EXPLAIN 확인 (임계치 0 → 모든 쿼리 기록)
+ * 따옴표가 든 문자열, timestamp 바인딩처럼 값이 채워진 SQL 로는 깨질 수 있는 쿼리도 실행 계획이 붙어야 한다
+ */
+@SpringBootTest(properties = {
+        "member.slow-query.threshold=0ms",
+        "member.slow-query.buffer-size=16"
+})
+class SlowQueryExplainTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    SlowQueryDetector slowQueryDetector;
+
+    @Test
+    void explainBindsOriginalParameters() throws InterruptedException {
+        jdbcTemplate.queryForList(
+                "select member_id from member where username = ? and cast(? as timestamp) < current_timestamp",
+                Long.class, "o'brien, \"jr\"", Timestamp.from(Instant.parse("2020-01-01T00:00:00Z")));
+
+        SlowQuery explained = awaitPlan("as timestamp");
+
+        assertThat(explained.getPlan()).doesNotStartWith("EXPLAIN failed").containsIgnoringCase("member");
+    }
+
+    private SlowQuery awaitPlan(String sqlFragment) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            Optional<SlowQuery> found = slowQueryDetector.recent().stream()
+                    .filter(slowQuery -> slowQuery.getSql().contains(sqlFragment) && slowQuery.getPlan() != null)
+                    .findFirst();
+            if (found.isPresent()) {
+                return found.get();
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("no explained slow query containing " + sqlFragment + ": " + slowQueryDetector.recent());
+    }
+}
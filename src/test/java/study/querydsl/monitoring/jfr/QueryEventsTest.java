@@ -0,0 +1,60 @@
+package study.querydsl.monitoring.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.support.PageableExecutionUtils;
+import study.querydsl.dto.MemberSearchCondition;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryEventsTest {
+
+    @Test
+    void disabled() {
+        // 이벤트가 꺼져 있으면 컨텍스트를 남기지 않고, count supplier 도 감싸지 않는다
+        List<Integer> result = QueryEvents.call("repo", "method", new MemberSearchCondition(), () -> List.of(1, 2));
+        assertThat(result).containsExactly(1, 2);
+        assertThat(QueryEvents.current()).isNull();
+    }
+
+    @Test
+    void callContentCount() throws Exception {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        Path file = Files.createTempFile("query-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(RepositoryEvent.class).withoutThreshold();
+            recording.start();
+
+            QueryEvents.call("MemberCustomRepository", "searchPageComplex", condition, () -> {
+                List<String> content = QueryEvents.content(() -> List.of("member1", "member2"));
+                return PageableExecutionUtils.getPage(content, PageRequest.of(0, 2), QueryEvents.count(() -> 10L));
+            });
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.deleteIfExists(file);
+
+        assertThat(events)
+                .filteredOn(event -> event.getEventType().getName().equals("study.querydsl.Repository"))
+                .extracting(event -> event.getString("phase") + ":" + event.getLong("rows"))
+                .containsExactlyInAnyOrder("content:2", "count:10", "call:2");
+        assertThat(events)
+                .allSatisfy(event -> {
+                    assertThat(event.getString("method")).isEqualTo("searchPageComplex");
+                    assertThat(event.getString("shape")).isEqualTo("teamName");
+                });
+        assertThat(QueryEvents.current()).isNull();
+    }
+}
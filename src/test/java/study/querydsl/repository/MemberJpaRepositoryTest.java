@@ -1,21 +1,27 @@
 package study.querydsl.repository;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.Team;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
 
 @SpringBootTest
 @Transactional
@@ -27,6 +33,9 @@ class MemberJpaRepositoryTest {
     @Autowired
     MemberJpaRepository memberJpaRepository;
 
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
     @BeforeEach
     void setUp() {
 
@@ -117,4 +126,70 @@ class MemberJpaRepositoryTest {
         assertThat(list).extracting("username").containsExactly("member2", "member3", "member5", "member9");
     }
 
-}
\ No newline at end of file
+    @Test
+    void forEachMemberChunk() {
+        for (int i = 0; i < 25; i++) {
+            memberJpaRepository.save(new Member("chunk" + i, i));
+        }
+        em.flush();
+        em.clear();
+
+        List<Integer> chunkSizes = new ArrayList<>();
+        long processed = memberJpaRepository.forEachMemberChunk(member.username.startsWith("chunk"), 10, members -> {
+            chunkSizes.add(members.size());
+            // chunk 단위로만 관리된다
+            assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isEqualTo(members.size());
+            members.forEach(m -> m.setAge(m.getAge() + 100));
+        });
+
+        assertThat(processed).isEqualTo(25);
+        assertThat(chunkSizes).containsExactly(10, 10, 5);
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+
+        assertThat(memberJpaRepository.findByUsername("chunk0")).extracting("age").containsExactly(100);
+        assertThat(memberJpaRepository.findByUsername("chunk24")).extracting("age").containsExactly(124);
+    }
+
+    /**
+     * chunk 마다 REQUIRES_NEW 로 커밋되므로 테스트 트랜잭션 없이 커밋된 데이터로 검증
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void forEachMemberChunkCommitPerChunk() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < 25; i++) {
+                memberJpaRepository.save(new Member("chunkCommit" + i, i));
+            }
+        });
+
+        try {
+            List<List<Member>> chunks = new ArrayList<>();
+            assertThatThrownBy(() -> memberJpaRepository.forEachMemberChunk(member.username.startsWith("chunkCommit"), 10, true,
+                    members -> {
+                        // 이전 chunk 의 회원은 더 이상 관리되지 않는다
+                        chunks.forEach(previous -> assertThat(previous).noneMatch(em::contains));
+                        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isEqualTo(members.size());
+                        chunks.add(members);
+
+                        members.forEach(m -> m.setAge(m.getAge() + 100));
+                        if (chunks.size() == 2) {
+                            throw new IllegalStateException("chunk failed");
+                        }
+                    }))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("chunk failed");
+
+            // 첫 chunk 는 커밋된 채 남고, 실패한 두 번째 chunk 는 롤백, 세 번째 chunk 는 처리하지 않는다
+            assertThat(chunks).hasSize(2);
+            List<Member> saved = transactionTemplate.execute(status -> em.createQuery(
+                            "select m from Member m where m.username like 'chunkCommit%' order by m.id", Member.class)
+                    .getResultList());
+            assertThat(saved).hasSize(25);
+            assertThat(saved.subList(0, 10)).allMatch(m -> m.getAge() >= 100);
+            assertThat(saved.subList(10, 25)).allMatch(m -> m.getAge() < 100);
+        } finally {
+            transactionTemplate.executeWithoutResult(status ->
+                    em.createQuery("delete from Member m where m.username like 'chunkCommit%'").executeUpdate());
+        }
+    }
+}
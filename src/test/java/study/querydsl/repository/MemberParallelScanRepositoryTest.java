@@ -0,0 +1,132 @@
+package study.querydsl.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberScanResult;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 구간마다 별도 EntityManager 로 읽으므로 테스트 트랜잭션이 아니라 커밋된 데이터로 검증
+ */
+@SpringBootTest(properties = {
+        "member.scan.parallelism=4",
+        "member.scan.segment-size=7"
+})
+class MemberParallelScanRepositoryTest {
+
+    private static final int MEMBER_COUNT = 100;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberParallelScanRepository memberParallelScanRepository;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("scanTeamA");
+            em.persist(teamA);
+            Team teamB = new Team("scanTeamB");
+            em.persist(teamB);
+            for (int i = 0; i < MEMBER_COUNT; i++) {
+                em.persist(new Member("scan" + i, i, i % 2 == 0 ? teamA : teamB));
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.username like 'scan%'").executeUpdate();
+            em.createQuery("delete from Team t where t.name like 'scanTeam%'").executeUpdate();
+        });
+    }
+
+    @Test
+    void scanOrdered() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("scanTeamA");
+
+        List<MemberTeamDto> result = new ArrayList<>();
+        MemberScanResult scanResult = memberParallelScanRepository.scan(condition, true, result::add);
+
+        assertThat(scanResult.getRows()).isEqualTo(MEMBER_COUNT / 2);
+        assertThat(scanResult.getSegments()).isGreaterThan(1);
+        assertThat(result).hasSize(MEMBER_COUNT / 2);
+        assertThat(result).extracting("memberId").isSorted();
+        assertThat(result).extracting("teamName").containsOnly("scanTeamA");
+    }
+
+    @Test
+    void scanUnordered() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(90);
+
+        List<MemberTeamDto> result = Collections.synchronizedList(new ArrayList<>());
+        MemberScanResult scanResult = memberParallelScanRepository.scan(condition, false, result::add);
+
+        assertThat(scanResult.getRows()).isEqualTo(10);
+        assertThat(result).extracting("username")
+                .containsExactlyInAnyOrder("scan90", "scan91", "scan92", "scan93", "scan94",
+                        "scan95", "scan96", "scan97", "scan98", "scan99");
+    }
+
+    @Test
+    void parallelStream() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("scanTeamB");
+
+        List<Long> ids = memberParallelScanRepository.stream(condition, true)
+                .map(MemberTeamDto::getMemberId)
+                .collect(Collectors.toList());
+
+        assertThat(ids).hasSize(MEMBER_COUNT / 2).isSorted();
+    }
+
+    @Test
+    void parallelismIsCappedBelowConnectionPool() throws Exception {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        int maxConnections = Math.max(1, hikari.getMaximumPoolSize() / 2);
+        MemberParallelScanRepository repository = new MemberParallelScanRepository(emf, dataSource, 64, 7);
+        try {
+            AtomicInteger maxActive = new AtomicInteger();
+            MemberScanResult scanResult = repository.scan(new MemberSearchCondition(), false, dto ->
+                    maxActive.accumulateAndGet(hikari.getHikariPoolMXBean().getActiveConnections(), Math::max));
+
+            assertThat(scanResult.getParallelism()).isEqualTo(maxConnections);
+            assertThat(scanResult.getRows()).isGreaterThanOrEqualTo(MEMBER_COUNT);
+            assertThat(maxActive.get()).isLessThanOrEqualTo(maxConnections);
+        } finally {
+            repository.destroy();
+        }
+    }
+}
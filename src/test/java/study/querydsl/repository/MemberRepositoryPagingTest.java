@@ -0,0 +1,142 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * searchPageComplex 의 일반 페이징과 지연 조인 페이징(offset >= 4)이 같은 순서를 쓰는지 확인
+ * searchSlice 도 같은 정렬(+ id tie-breaker)로 페이지를 넘겨도 중복/누락이 없는지 확인
+ */
+@SpringBootTest(properties = {
+        "member.search.deferred-join-offset=4",
+        "member.search-cache.enabled=false"
+})
+@Transactional
+class MemberRepositoryPagingTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Team[] teams = {teamB, teamA, null, teamA, teamB, teamA, null, teamB};
+        for (int i = 0; i < teams.length; i++) {
+            // 나이가 같은 회원을 두어 id tie-breaker 가 필요하게 만든다
+            em.persist(new Member("member" + i, 10 * (i / 2), teams[i]));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void sortedPagesAreConsistentAcrossDeferredJoinBoundary() {
+        assertPagedEqualsSingleQuery(Sort.by(Sort.Direction.DESC, "age"));
+        assertPagedEqualsSingleQuery(Sort.by("teamName"));
+        assertPagedEqualsSingleQuery(Sort.by(Sort.Direction.DESC, "team.name").and(Sort.by("username")));
+    }
+
+    @Test
+    void unsortedPagesAreOrderedById() {
+        List<MemberTeamDto> all = pageByPage(Sort.unsorted());
+
+        assertThat(all).extracting(MemberTeamDto::getMemberId).isSorted().doesNotHaveDuplicates().hasSize(8);
+    }
+
+    @Test
+    void teamSortKeepsMembersWithoutTeam() {
+        // 4번째 페이지부터는 지연 조인 경로
+        List<MemberTeamDto> deepPages = new ArrayList<>();
+        deepPages.addAll(page(2, Sort.by("teamName")));
+        deepPages.addAll(page(3, Sort.by("teamName")));
+
+        assertThat(pageByPage(Sort.by("teamName"))).extracting(MemberTeamDto::getTeamName).containsNull();
+        assertThat(deepPages).hasSize(4);
+    }
+
+    @Test
+    void slicesWithTiedValuesMatchSingleQuery() {
+        List<Sort> sorts = List.of(Sort.unsorted(), Sort.by(Sort.Direction.DESC, "age"),
+                Sort.by("teamName"), Sort.by(Sort.Direction.DESC, "teamId").and(Sort.by("age")), Sort.by("memberId"));
+        for (Sort sort : sorts) {
+            List<MemberTeamDto> single = memberRepository
+                    .searchPageComplex(new MemberSearchCondition(), PageRequest.of(0, 100, sort))
+                    .getContent();
+
+            List<MemberTeamDto> sliced = sliceBySlice(sort);
+
+            assertThat(sliced).extracting(MemberTeamDto::getMemberId)
+                    .containsExactlyElementsOf(single.stream().map(MemberTeamDto::getMemberId).toList());
+            assertThat(sliced).hasSize(8);
+        }
+    }
+
+    @Test
+    void unsupportedSliceSortIsRejected() {
+        assertThatThrownBy(() -> memberRepository.searchSlice(new MemberSearchCondition(),
+                PageRequest.of(0, 3, Sort.by("password"))))
+                .isInstanceOfAny(IllegalArgumentException.class, InvalidDataAccessApiUsageException.class);
+    }
+
+    private List<MemberTeamDto> sliceBySlice(Sort sort) {
+        List<MemberTeamDto> all = new ArrayList<>();
+        Slice<MemberTeamDto> slice = memberRepository.searchSlice(new MemberSearchCondition(), PageRequest.of(0, 3, sort));
+        all.addAll(slice.getContent());
+        while (slice.hasNext()) {
+            slice = memberRepository.searchSlice(new MemberSearchCondition(), slice.nextPageable());
+            all.addAll(slice.getContent());
+        }
+        return all;
+    }
+
+    private void assertPagedEqualsSingleQuery(Sort sort) {
+        List<MemberTeamDto> single = memberRepository
+                .searchPageComplex(new MemberSearchCondition(), PageRequest.of(0, 100, sort))
+                .getContent();
+
+        List<MemberTeamDto> paged = pageByPage(sort);
+
+        assertThat(paged).extracting(MemberTeamDto::getMemberId)
+                .containsExactlyElementsOf(single.stream().map(MemberTeamDto::getMemberId).toList());
+        assertThat(paged).hasSize(8);
+    }
+
+    private List<MemberTeamDto> pageByPage(Sort sort) {
+        List<MemberTeamDto> all = new ArrayList<>();
+        for (int page = 0; page < 4; page++) {
+            all.addAll(page(page, sort));
+        }
+        return all;
+    }
+
+    private List<MemberTeamDto> page(int page, Sort sort) {
+        return memberRepository
+                .searchPageComplex(new MemberSearchCondition(), PageRequest.of(page, 2, sort))
+                .getContent();
+    }
+}
@@ -3,8 +3,11 @@ package study.querydsl.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
@@ -13,9 +16,12 @@ import study.querydsl.entity.QMember;
 import study.querydsl.entity.Team;
 
 import javax.persistence.EntityManager;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static study.querydsl.entity.QMember.member;
 
 @SpringBootTest
@@ -125,6 +131,77 @@ class MemberRepositoryTest {
         assertThat(result.getContent()).extracting("username").containsExactly("member1", "member2", "member3");
     }
 
+    @Test
+    void searchSlice() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        Team teamB = new Team("teamB");
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+
+        Member member3 = new Member("member3", 30, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        Slice<MemberTeamDto> first = memberRepository.searchSlice(condition, PageRequest.of(0, 3));
+        assertThat(first.getContent()).extracting("username").containsExactly("member1", "member2", "member3");
+        assertThat(first.hasNext()).isTrue();
+
+        Slice<MemberTeamDto> last = memberRepository.searchSlice(condition, PageRequest.of(1, 3));
+        assertThat(last.getContent()).extracting("username").containsExactly("member4");
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    void searchFields() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        Team teamB = new Team("teamB");
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+
+        List<Map<String, Object>> result = memberRepository.searchFields(condition,
+                EnumSet.of(MemberField.MEMBER_ID, MemberField.USERNAME));
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0)).containsOnlyKeys("memberId", "username");
+        assertThat(result).extracting(row -> row.get("username")).containsExactly("member3", "member4");
+
+        Page<Map<String, Object>> page = memberRepository.searchPageFields(new MemberSearchCondition(),
+                PageRequest.of(0, 3), MemberField.parse("username,teamName"));
+
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(page.getContent()).extracting(row -> row.get("teamName")).containsExactly("teamA", "teamA", "teamB");
+
+        // 선택하지 않은 속성/팀으로도 정렬 가능
+        Page<Map<String, Object>> byAge = memberRepository.searchPageFields(new MemberSearchCondition(),
+                PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "age")), MemberField.parse("username"));
+        assertThat(byAge.getContent()).extracting(row -> row.get("username")).containsExactly("member4", "member3", "member2");
+
+        Page<Map<String, Object>> byTeam = memberRepository.searchPageFields(new MemberSearchCondition(),
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "teamName")), MemberField.parse("username"));
+        assertThat(byTeam.getContent()).extracting(row -> row.get("username")).containsExactly("member1", "member2");
+
+        assertThatThrownBy(() -> memberRepository.searchPageFields(new MemberSearchCondition(),
+                PageRequest.of(0, 3, Sort.by("password")), MemberField.parse("username")))
+                .isInstanceOfAny(IllegalArgumentException.class, InvalidDataAccessApiUsageException.class);
+    }
+
     @Test
     public void querydslPredicateExecutorTest() {
         Team teamA = new Team("teamA");
@@ -0,0 +1,100 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberAgeRank;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest
+@Transactional
+class MemberSqlRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberSqlRepository memberSqlRepository;
+
+    @Autowired
+    MemberTestRepository memberTestRepository;
+
+    Member member3;
+
+    @BeforeEach
+    void setUp() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        Team teamB = new Team("teamB");
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        member3 = new Member("member3", 30, teamA);
+        em.persist(member3);
+        em.persist(new Member("member4", 40, teamB));
+        em.persist(new Member("member5", 50, teamB));
+
+        // querydsl-sql 은 같은 커넥션을 쓰지만 영속성 컨텍스트는 거치지 않는다
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void findTopNByAgePerTeam() {
+        List<MemberTeamDto> result = memberSqlRepository.findTopNByAgePerTeam(2);
+
+        assertThat(result).extracting("username").containsExactly("member3", "member2", "member5", "member4");
+        assertThat(result).isEqualTo(memberTestRepository.findTopNByAgePerTeam_Subquery(2));
+    }
+
+    @Test
+    void findAgeRank() {
+        MemberAgeRank rank = memberSqlRepository.findAgeRank(member3.getId()).orElseThrow();
+
+        assertThat(rank.getUsername()).isEqualTo("member3");
+        assertThat(rank.getRank()).isEqualTo(3);
+        assertThat(rank.getTeamRank()).isEqualTo(1);
+        assertThat(rank.getPercentile()).isCloseTo(0.5, within(1e-9));
+
+        MemberAgeRank subquery = memberTestRepository.findAgeRank_Subquery(member3.getId()).orElseThrow();
+        assertThat(subquery.getRank()).isEqualTo(rank.getRank());
+        assertThat(subquery.getTeamRank()).isEqualTo(rank.getTeamRank());
+        assertThat(subquery.getPercentile()).isCloseTo(rank.getPercentile(), within(1e-9));
+    }
+
+    @Test
+    void findAgeRankWithoutTeam() {
+        em.persist(new Member("noTeam1", 60));
+        Member noTeam2 = new Member("noTeam2", 5);
+        em.persist(noTeam2);
+        em.flush();
+        em.clear();
+
+        MemberAgeRank rank = memberSqlRepository.findAgeRank(noTeam2.getId()).orElseThrow();
+
+        // 팀이 없는 회원끼리 한 파티션으로 묶어 2 위가 되지 않는다
+        assertThat(rank.getRank()).isEqualTo(7);
+        assertThat(rank.getTeamRank()).isEqualTo(1);
+
+        MemberAgeRank subquery = memberTestRepository.findAgeRank_Subquery(noTeam2.getId()).orElseThrow();
+        assertThat(subquery.getRank()).isEqualTo(rank.getRank());
+        assertThat(subquery.getTeamRank()).isEqualTo(rank.getTeamRank());
+        assertThat(subquery.getPercentile()).isCloseTo(rank.getPercentile(), within(1e-9));
+    }
+
+    @Test
+    void findAgeRankNotFound() {
+        assertThat(memberSqlRepository.findAgeRank(-1L)).isEmpty();
+    }
+}
@@ -0,0 +1,135 @@
+package study.querydsl.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "member.write-behind.enabled=true",
+        "member.write-behind.batch-size=10",
+        "member.write-behind.window=20ms"
+})
+class MemberWriteBehindTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status ->
+                em.createQuery("delete from Member m where m.username like 'behind%'").executeUpdate());
+    }
+
+    @Test
+    void futuresCompleteAfterBatchedCommit() throws Exception {
+        List<CompletableFuture<Member>> futures = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            futures.add(memberJpaRepository.saveAsync(new Member("behind" + i, i)));
+        }
+
+        for (CompletableFuture<Member> future : futures) {
+            assertThat(future.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+        }
+
+        // future 완료 시점에 이미 커밋되어 다른 트랜잭션에서 보인다
+        Long count = em.createQuery("select count(m) from Member m where m.username like 'behind%'", Long.class)
+                .getSingleResult();
+        assertThat(count).isEqualTo(25);
+
+        double batches = meterRegistry.get("member.write-behind.batch.size").summary().count();
+        double persisted = meterRegistry.get("member.write-behind.batch.size").summary().totalAmount();
+        assertThat(batches).isGreaterThanOrEqualTo(3);
+        assertThat(persisted).isGreaterThanOrEqualTo(25);
+    }
+
+    @Test
+    void failingMemberDoesNotFailWholeBatch() throws Exception {
+        List<CompletableFuture<Member>> futures = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            futures.add(memberJpaRepository.saveAsync(new Member("behindOk" + i, i)));
+        }
+        // username 컬럼(varchar 255) 초과로 커밋 실패
+        CompletableFuture<Member> tooLong = memberJpaRepository.saveAsync(new Member("behind" + "x".repeat(300), 0));
+
+        for (CompletableFuture<Member> future : futures) {
+            assertThat(future.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+        }
+        assertThatThrownBy(() -> tooLong.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+
+        Long count = em.createQuery("select count(m) from Member m where m.username like 'behindOk%'", Long.class)
+                .getSingleResult();
+        assertThat(count).isEqualTo(9);
+    }
+
+    @Test
+    void disabledSaveJoinsCallersTransaction() {
+        MemberWriteBehind disabled = newWriteBehind(false);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            CompletableFuture<Member> future = disabled.save(new Member("behindRolledBack", 1));
+            assertThat(future).isCompleted();
+            status.setRollbackOnly();
+        });
+
+        Long count = em.createQuery("select count(m) from Member m where m.username = 'behindRolledBack'", Long.class)
+                .getSingleResult();
+        assertThat(count).isZero();
+    }
+
+    @Test
+    void destroyFlushesQueuedSavesAndRejectsLaterOnes() throws Exception {
+        MemberWriteBehind writeBehind = newWriteBehind(true);
+        List<CompletableFuture<Member>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(writeBehind.save(new Member("behindShutdown" + i, i)));
+        }
+
+        writeBehind.destroy();
+
+        for (CompletableFuture<Member> future : futures) {
+            assertThat(future).isCompleted();
+            assertThat(future.get().getId()).isNotNull();
+        }
+        assertThat(writeBehind.queued()).isZero();
+        assertThatThrownBy(() -> writeBehind.save(new Member("behindLate", 0)))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    /**
+     * 긴 window 로 만들어 destroy() 전에는 flush 되지 않게 한다
+     */
+    private MemberWriteBehind newWriteBehind(boolean enabled) {
+        return new MemberWriteBehind(em, transactionManager, new SimpleMeterRegistry(), enabled,
+                100, 100, Duration.ofSeconds(10), Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,128 @@
+package study.querydsl.repository;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class TeamRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Test
+    void findMembers() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        Team teamB = new Team("teamB");
+        em.persist(teamB);
+        for (int i = 0; i < 10; i++) {
+            em.persist(new Member("member" + i, i, i % 2 == 0 ? teamA : teamB));
+        }
+        em.flush();
+        em.clear();
+
+        PageRequest pageRequest = PageRequest.of(1, 3, Sort.by(Sort.Direction.ASC, "age"));
+        Page<Member> result = teamRepository.findMembers(teamA.getId(), pageRequest);
+
+        assertThat(result.getTotalElements()).isEqualTo(5);
+        assertThat(result.getContent()).extracting("username").containsExactly("member6", "member8");
+    }
+
+    /**
+     * 관리 상태의 팀에 회원을 추가해도 members 컬렉션을 로딩하지 않고,
+     * 팀 규모와 관계없이 회원 추가당 SQL 수가 일정하다
+     */
+    @Test
+    void addingMemberDoesNotLoadTeamMembers() {
+        Team team = new Team("teamA");
+        em.persist(team);
+        em.flush();
+        em.clear();
+
+        Team managedTeam = em.find(Team.class, team.getId());
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        int rounds = 10;
+        int perRound = 100;
+        List<Long> statementsPerRound = new ArrayList<>();
+        for (int round = 0; round < rounds; round++) {
+            long before = statistics.getPrepareStatementCount();
+            for (int i = 0; i < perRound; i++) {
+                em.persist(new Member("member" + (round * perRound + i), i, managedTeam));
+            }
+            em.flush();
+            statementsPerRound.add(statistics.getPrepareStatementCount() - before);
+        }
+
+        assertThat(Hibernate.isInitialized(managedTeam.getMembers())).isFalse();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        // 라운드당: insert batch + pooled-lo 시퀀스 호출 (allocation size 50 기준 2~3회)
+        assertThat(statementsPerRound).allMatch(count -> count <= 5);
+        assertThat(statementsPerRound.get(rounds - 1)).isLessThanOrEqualTo(statementsPerRound.get(0) + 1);
+    }
+
+    /**
+     * flush 전에 같은 세션에서 members 를 초기화해도 방금 추가한 회원이 보인다
+     */
+    @Test
+    void addedMemberIsVisibleWhenMembersInitializedBeforeFlush() {
+        Team team = new Team("teamA");
+        em.persist(team);
+        em.persist(new Member("member1", 10, team));
+        em.flush();
+        em.clear();
+
+        Team managedTeam = em.find(Team.class, team.getId());
+        Member member2 = new Member("member2", 20, managedTeam);
+        em.persist(member2);
+        assertThat(Hibernate.isInitialized(managedTeam.getMembers())).isFalse();
+
+        List<Member> members = managedTeam.getMembers();
+
+        assertThat(members).extracting("username").containsExactlyInAnyOrder("member1", "member2");
+        assertThat(members).contains(member2);
+    }
+
+    /**
+     * 프록시 상태의 팀에 추가해도 members 는 초기화되지 않는다 (팀 행만 조회)
+     */
+    @Test
+    void addingMemberToTeamProxyDoesNotLoadMembers() {
+        Team team = new Team("teamA");
+        em.persist(team);
+        em.flush();
+        em.clear();
+
+        Team proxy = em.getReference(Team.class, team.getId());
+        em.persist(new Member("member1", 10, proxy));
+
+        assertThat(Hibernate.isInitialized(proxy.getMembers())).isFalse();
+        assertThat(proxy.getMembers()).extracting("username").containsExactly("member1");
+    }
+}
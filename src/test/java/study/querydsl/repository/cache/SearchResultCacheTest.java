@@ -0,0 +1,118 @@
+package study.querydsl.repository.cache;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
+
+@SpringBootTest(properties = "member.search-cache.enabled=true")
+@Transactional
+class SearchResultCacheTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @BeforeEach
+    void setUp() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        Team teamB = new Team("teamB");
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        em.flush();
+    }
+
+    @Test
+    void cacheHit() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+
+        List<MemberTeamDto> first = memberRepository.search(condition);
+        List<MemberTeamDto> second = memberRepository.search(condition);
+
+        assertThat(second).isEqualTo(first).isNotSameAs(first);
+        assertThat(second.get(0)).isNotSameAs(first.get(0));
+    }
+
+    @Test
+    void callerMutationDoesNotCorruptCache() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+
+        List<MemberTeamDto> first = memberRepository.search(condition);
+        first.get(0).setUsername("changed");
+        assertThatThrownBy(() -> first.remove(0)).isInstanceOf(UnsupportedOperationException.class);
+
+        Page<MemberTeamDto> page = memberRepository.searchPageComplex(condition, PageRequest.of(0, 10));
+        page.getContent().get(1).setAge(0);
+
+        assertThat(memberRepository.search(condition)).extracting("username").containsExactly("member3", "member4");
+        assertThat(memberRepository.searchPageComplex(condition, PageRequest.of(0, 10)).getContent())
+                .extracting("age").containsExactly(30, 40);
+    }
+
+    @Test
+    void bulkUpdateInvalidates() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+
+        List<MemberTeamDto> before = memberRepository.search(condition);
+        assertThat(before).extracting("age").containsExactly(30, 40);
+
+        queryFactory
+                .update(member)
+                .set(member.age, 99)
+                .where(member.username.eq("member4"))
+                .execute();
+
+        List<MemberTeamDto> after = memberRepository.search(condition);
+        assertThat(after).isNotSameAs(before);
+        assertThat(after).extracting("age").containsExactly(30, 99);
+    }
+
+    @Test
+    void pendingChangesBypassCache() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        List<MemberTeamDto> before = memberRepository.search(condition);
+        em.persist(new Member("member5", 50, em.find(Team.class, before.get(0).getTeamId())));
+
+        assertThat(memberRepository.search(condition)).hasSize(3);
+    }
+
+    @Test
+    void writtenTable() {
+        assertThat(TableUpdateTimestamps.writtenTable("/* insert study.querydsl.entity.Member */ insert into member (age) values (?)"))
+                .isEqualTo("member");
+        assertThat(TableUpdateTimestamps.writtenTable("update PUBLIC.team set name=?")).isEqualTo("team");
+        assertThat(TableUpdateTimestamps.writtenTable("delete from member where age>?")).isEqualTo("member");
+        assertThat(TableUpdateTimestamps.writtenTable("select * from member")).isNull();
+    }
+}
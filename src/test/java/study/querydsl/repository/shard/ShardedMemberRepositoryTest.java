@@ -0,0 +1,220 @@
+package study.querydsl.repository.shard;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.monitoring.SearchShapeMetrics;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.TeamRepository;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 일반 저장 경로(JPA, 대량 등록)로 쓰고 기존 검색 API 로 읽어 샤드 라우팅 검증
+ * 샤드 반영이 커밋 후에 일어나므로 테스트 트랜잭션 없이 커밋된 데이터로 검증
+ */
+@SpringBootTest(properties = {
+        "member.sharding.enabled=true",
+        "member.sharding.urls=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+class ShardedMemberRepositoryTest {
+
+    @Autowired
+    MemberShards shards;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    SearchShapeMetrics searchShapeMetrics;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    Team teamA;
+    Team teamB;
+    Member member5;
+
+    @BeforeEach
+    void before() {
+        transactionTemplate.executeWithoutResult(status -> {
+            teamA = teamRepository.save(new Team("shardTeamA"));
+            teamB = teamRepository.save(new Team("shardTeamB"));
+            memberJpaRepository.save(new Member("shard1", 10, teamA));
+            memberJpaRepository.save(new Member("shard2", 20, teamA));
+            memberJpaRepository.save(new Member("shard3", 30, teamB));
+            memberJpaRepository.save(new Member("shard4", 40, teamB));
+            member5 = new Member("shard5", 50);
+            memberJpaRepository.save(member5);
+        });
+    }
+
+    @AfterEach
+    void after() {
+        // JPQL 벌크 삭제는 샤드에 반영되지 않으므로 샤드는 직접 비운다
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.username like 'shard%'").executeUpdate();
+            em.createQuery("delete from Team t where t.name like 'shardTeam%'").executeUpdate();
+        });
+        for (JdbcTemplate shard : shards.all()) {
+            shard.update("delete from member");
+            shard.update("delete from team");
+        }
+    }
+
+    @Test
+    void savedMembersAreRoutedToOwningShard() {
+        assertThat(shardsHolding("shard1")).containsExactly(shards.shardOf(teamA.getId()));
+        assertThat(shardsHolding("shard3")).containsExactly(shards.shardOf(teamB.getId()));
+        assertThat(shardsHolding("shard5")).containsExactly(0);
+
+        // team 은 모든 샤드에 복제
+        for (JdbcTemplate shard : shards.all()) {
+            assertThat(shard.queryForList("select name from team order by team_id", String.class))
+                    .containsExactly("shardTeamA", "shardTeamB");
+        }
+    }
+
+    @Test
+    void rolledBackSaveIsNotWrittenToShards() {
+        transactionTemplate.executeWithoutResult(status -> {
+            memberJpaRepository.save(new Member("shardRolledBack", 60, em.find(Team.class, teamA.getId())));
+            status.setRollbackOnly();
+        });
+
+        assertThat(shardsHolding("shardRolledBack")).isEmpty();
+    }
+
+    @Test
+    void changedTeamMovesMemberToNewShard() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Member member = em.createQuery("select m from Member m where m.username = 'shard1'", Member.class)
+                    .getSingleResult();
+            member.setTeam(em.getReference(Team.class, teamB.getId()));
+            member.setAge(11);
+        });
+
+        assertThat(shardsHolding("shard1")).containsExactly(shards.shardOf(teamB.getId()));
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("shardTeamB");
+        assertThat(memberRepository.search(condition)).extracting("username")
+                .containsExactly("shard1", "shard3", "shard4");
+    }
+
+    @Test
+    void removedMemberIsDeletedFromShards() {
+        transactionTemplate.executeWithoutResult(status -> em.remove(em.find(Member.class, member5.getId())));
+
+        assertThat(shardsHolding("shard5")).isEmpty();
+    }
+
+    @Test
+    void bulkInsertIsWrittenToShards() throws Exception {
+        mockMvc.perform(post("/members/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"username\":\"shardBulk1\",\"age\":1,\"teamName\":\"shardTeamB\"},"
+                                + "{\"username\":\"shardBulk2\",\"age\":2}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2));
+
+        assertThat(shardsHolding("shardBulk1")).containsExactly(shards.shardOf(teamB.getId()));
+        assertThat(shardsHolding("shardBulk2")).containsExactly(0);
+    }
+
+    @Test
+    void searchApisReadShards() throws Exception {
+        mockMvc.perform(get("/v3/members").param("sort", "age,desc").param("page", "1").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(5))
+                .andExpect(jsonPath("$.content[*].username", contains("shard3", "shard2")));
+        mockMvc.perform(get("/v3/members").param("teamName", "shardTeamB"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].username", contains("shard3", "shard4")));
+        mockMvc.perform(get("/v4/members").param("sort", "teamName,desc").param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.content[*].username", contains("shard3", "shard4", "shard1")));
+
+        // 샤드에서만 지운 행은 기본 DB 에 남아 있어도 검색되지 않는다
+        shards.shard(0).update("delete from member where member_id = ?", member5.getId());
+        mockMvc.perform(get("/v3/members").param("username", "shard5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+        assertThat(memberJpaRepository.findById(member5.getId())).isPresent();
+    }
+
+    @Test
+    void unsupportedSortPropertyIsRejected() throws Exception {
+        mockMvc.perform(get("/v3/members").param("sort", "password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchShapeIsRecorded() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(35);
+        long before = shapeCount("ageGoe");
+
+        List<MemberTeamDto> content = memberRepository.searchPageComplex(condition, PageRequest.of(0, 10, Sort.by("age")))
+                .getContent();
+
+        assertThat(content).extracting("username").containsExactly("shard4", "shard5");
+        assertThat(shapeCount("ageGoe")).isEqualTo(before + 1);
+    }
+
+    private List<Integer> shardsHolding(String username) {
+        List<Integer> holding = new ArrayList<>();
+        for (int index = 0; index < shards.size(); index++) {
+            Integer count = shards.shard(index)
+                    .queryForObject("select count(*) from member where username = ?", Integer.class, username);
+            if (count > 0) {
+                holding.add(index);
+            }
+        }
+        return holding;
+    }
+
+    private long shapeCount(String shape) {
+        return searchShapeMetrics.snapshot().stream()
+                .filter(entry -> shape.equals(entry.get("shape")))
+                .mapToLong(entry -> (Long) entry.get("count"))
+                .findFirst()
+                .orElse(0L);
+    }
+}
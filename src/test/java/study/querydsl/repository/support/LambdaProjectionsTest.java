@@ -0,0 +1,49 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.FactoryExpression;
+import org.junit.jupiter.api.Test;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.UserDto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+class LambdaProjectionsTest {
+
+    @Test
+    void constructor() {
+        FactoryExpression<MemberTeamDto> factory = LambdaProjections.constructor(MemberTeamDto.class,
+                member.id, member.username, member.age, team.id, team.name);
+
+        MemberTeamDto dto = factory.newInstance(1L, "member1", null, null, null);
+
+        assertThat(dto).isEqualTo(new MemberTeamDto(1L, "member1", 0, null, null));
+        assertThat(factory.getArgs()).hasSize(5);
+    }
+
+    @Test
+    void bean() {
+        FactoryExpression<UserDto> factory = LambdaProjections.bean(UserDto.class,
+                member.username.as("name"), member.age);
+
+        assertThat(factory.newInstance("member1", 10)).isEqualTo(new UserDto("member1", 10));
+        assertThat(factory.newInstance("member2", null)).isEqualTo(new UserDto("member2", 0));
+    }
+
+    @Test
+    void fields() {
+        FactoryExpression<MemberDto> factory = LambdaProjections.fields(MemberDto.class,
+                member.username, member.age);
+
+        assertThat(factory.newInstance("member1", 10)).isEqualTo(new MemberDto("member1", 10));
+    }
+
+    @Test
+    void unknownProperty() {
+        assertThatThrownBy(() -> LambdaProjections.bean(MemberDto.class, member.username.as("name")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,102 @@
+package study.querydsl.repository.support;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchSingleFlightTest {
+
+    @Test
+    void concurrentIdenticalCallsShareOneExecution() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SearchSingleFlight singleFlight = new SearchSingleFlight(meterRegistry, true);
+
+        int callers = 8;
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            MemberSearchCondition condition = new MemberSearchCondition();
+            condition.setTeamName("teamA");
+            results.add(executor.submit(() -> singleFlight.execute("search", condition, null, () -> {
+                executions.incrementAndGet();
+                await(release);
+                return "result";
+            })));
+        }
+
+        // 모든 호출이 합류할 때까지 대기 후 실행 완료
+        while (meterRegistry.counter("member.search.single-flight", "result", "coalesced").count() < callers - 1) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        }
+        assertThat(executions.get()).isEqualTo(1);
+        executor.shutdown();
+    }
+
+    @Test
+    void callersDoNotShareMutableResults() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SearchSingleFlight singleFlight = new SearchSingleFlight(meterRegistry, true);
+
+        int callers = 3;
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        List<Future<List<MemberTeamDto>>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("search", new MemberSearchCondition(), null, () -> {
+                await(release);
+                List<MemberTeamDto> rows = new ArrayList<>();
+                rows.add(new MemberTeamDto(1L, "member1", 10, 1L, "teamA"));
+                return rows;
+            })));
+        }
+
+        while (meterRegistry.counter("member.search.single-flight", "result", "coalesced").count() < callers - 1) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        List<List<MemberTeamDto>> lists = new ArrayList<>();
+        for (Future<List<MemberTeamDto>> result : results) {
+            lists.add(result.get(5, TimeUnit.SECONDS));
+        }
+
+        // 한 호출자가 행을 바꿔도 다른 호출자의 결과는 그대로
+        lists.get(0).get(0).setUsername("changed");
+        for (List<MemberTeamDto> other : lists.subList(1, callers)) {
+            assertThat(other.get(0).getUsername()).isEqualTo("member1");
+            assertThat(other.get(0)).isNotSameAs(lists.get(0).get(0));
+        }
+        lists.get(1).get(0).setAge(99);
+        assertThat(lists.get(2).get(0).getAge()).isEqualTo(10);
+        executor.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}